@@ -1,6 +1,7 @@
 package com.syncora.common.exception;
 
 import com.syncora.common.response.ApiResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -20,6 +21,19 @@ public class GlobalExceptionHandler {
                 .body(new ApiResponse<>(false, ex.getMessage(), null));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse<String>> handleConflict(ConflictException ex) {
+        return ResponseEntity.status(409)
+                .body(new ApiResponse<>(false, ex.getMessage(), null));
+    }
+
+    // A concurrent writer committed first; the client should reload and retry
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(409)
+                .body(new ApiResponse<>(false, "The resource was modified concurrently, reload and retry", null));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleOther(Exception ex) {
         ex.printStackTrace();
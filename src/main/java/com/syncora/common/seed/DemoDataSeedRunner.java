@@ -0,0 +1,60 @@
+package com.syncora.common.seed;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every {@link DemoSeeder} on a background thread once the application is ready, so
+ * sample data never delays startup or the first requests. Only active with the {@code demo}
+ * profile; other environments never load any seeder.
+ */
+@Component
+@Profile("demo")
+@Slf4j
+public class DemoDataSeedRunner {
+    
+    private final List<DemoSeeder> seeders;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "demo-data-seeder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    
+    public DemoDataSeedRunner(List<DemoSeeder> seeders) {
+        this.seeders = seeders;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInBackground() {
+        executor.execute(() -> seeders.forEach(this::run));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void run(DemoSeeder seeder) {
+        long startedAt = System.nanoTime();
+        try {
+            if (seeder.isSeeded()) {
+                log.info("Demo data for {} already present, skipping", seeder.name());
+                return;
+            }
+            int created = seeder.seed();
+            log.info("Seeded {} demo records for {} in {} ms", created, seeder.name(),
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to seed demo data for {}", seeder.name(), e);
+        }
+    }
+}
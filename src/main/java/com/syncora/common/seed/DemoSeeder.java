@@ -0,0 +1,16 @@
+package com.syncora.common.seed;
+
+/**
+ * Sample data for one module, loaded by {@link DemoDataSeedRunner} when the {@code demo}
+ * profile is active. Implementations must be idempotent: {@link #isSeeded()} should be a
+ * cheap, index-backed existence check so restarts skip seeding immediately.
+ */
+public interface DemoSeeder {
+    
+    String name();
+    
+    boolean isSeeded();
+    
+    /** Inserts the sample data; expected to batch its writes in a single transaction. */
+    int seed();
+}
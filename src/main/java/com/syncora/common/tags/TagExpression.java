@@ -0,0 +1,206 @@
+package com.syncora.common.tags;
+
+import com.syncora.common.exception.ApiException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Boolean expression over tags, evaluated against a {@link TagIndex}.
+ * <p>
+ * Syntax: {@code work AND (urgent OR "follow up") AND NOT done}. Keywords are case-insensitive,
+ * {@code &}, {@code |} and {@code !} work as well, and adjacent terms are ANDed. Tags that
+ * contain spaces, parentheses or a keyword need double quotes.
+ */
+public interface TagExpression {
+    
+    int MAX_LENGTH = 1000;
+    
+    BitSet evaluate(TagIndex index);
+    
+    static TagExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new ApiException("Tag expression must not be empty");
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw new ApiException("Tag expression must be at most " + MAX_LENGTH + " characters");
+        }
+        return new Parser(expression).parse();
+    }
+    
+    /** Items carrying at least one of {@code tags}. */
+    static TagExpression anyOf(List<String> tags) {
+        return new Or(tags.stream().<TagExpression>map(Tag::new).toList());
+    }
+    
+    /** Items carrying every one of {@code tags}. */
+    static TagExpression allOf(List<String> tags) {
+        return new And(tags.stream().<TagExpression>map(Tag::new).toList());
+    }
+    
+    record Tag(String name) implements TagExpression {
+        @Override
+        public BitSet evaluate(TagIndex index) {
+            return index.bitmap(name);
+        }
+    }
+    
+    record And(List<TagExpression> terms) implements TagExpression {
+        @Override
+        public BitSet evaluate(TagIndex index) {
+            BitSet result = null;
+            for (TagExpression term : terms) {
+                if (result == null) {
+                    result = term.evaluate(index);
+                } else if (term instanceof Not not) {
+                    // x AND NOT y without materialising the complement of y
+                    result.andNot(not.term().evaluate(index));
+                } else {
+                    result.and(term.evaluate(index));
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result != null ? result : index.all();
+        }
+    }
+    
+    record Or(List<TagExpression> terms) implements TagExpression {
+        @Override
+        public BitSet evaluate(TagIndex index) {
+            BitSet result = new BitSet();
+            for (TagExpression term : terms) {
+                result.or(term.evaluate(index));
+            }
+            return result;
+        }
+    }
+    
+    record Not(TagExpression term) implements TagExpression {
+        @Override
+        public BitSet evaluate(TagIndex index) {
+            BitSet result = index.all();
+            result.andNot(term.evaluate(index));
+            return result;
+        }
+    }
+    
+    /** Recursive descent: or := and (OR and)*, and := not (AND? not)*, not := NOT not | primary. */
+    final class Parser {
+        private final List<String> tokens;
+        private final List<Boolean> quoted = new ArrayList<>();
+        private int pos;
+        
+        private Parser(String input) {
+            this.tokens = tokenize(input);
+        }
+        
+        private TagExpression parse() {
+            TagExpression expression = parseOr();
+            if (pos < tokens.size()) {
+                throw error("unexpected '" + tokens.get(pos) + "'");
+            }
+            return expression;
+        }
+        
+        private TagExpression parseOr() {
+            List<TagExpression> terms = new ArrayList<>();
+            terms.add(parseAnd());
+            while (keyword("OR", "|")) {
+                pos++;
+                terms.add(parseAnd());
+            }
+            return terms.size() == 1 ? terms.get(0) : new Or(terms);
+        }
+        
+        private TagExpression parseAnd() {
+            List<TagExpression> terms = new ArrayList<>();
+            terms.add(parseNot());
+            while (pos < tokens.size() && !keyword("OR", "|") && !keyword(")", ")")) {
+                if (keyword("AND", "&")) {
+                    pos++;
+                }
+                terms.add(parseNot());
+            }
+            return terms.size() == 1 ? terms.get(0) : new And(terms);
+        }
+        
+        private TagExpression parseNot() {
+            if (keyword("NOT", "!")) {
+                pos++;
+                return new Not(parseNot());
+            }
+            return parsePrimary();
+        }
+        
+        private TagExpression parsePrimary() {
+            if (pos >= tokens.size()) {
+                throw error("unexpected end of expression");
+            }
+            if (keyword("(", "(")) {
+                pos++;
+                TagExpression inner = parseOr();
+                if (!keyword(")", ")")) {
+                    throw error("missing ')'");
+                }
+                pos++;
+                return inner;
+            }
+            if (!quoted.get(pos) && isOperator(tokens.get(pos))) {
+                throw error("unexpected '" + tokens.get(pos) + "'");
+            }
+            return new Tag(tokens.get(pos++));
+        }
+        
+        private boolean keyword(String word, String symbol) {
+            if (pos >= tokens.size() || quoted.get(pos)) {
+                return false;
+            }
+            String token = tokens.get(pos);
+            return token.equals(symbol) || token.equalsIgnoreCase(word);
+        }
+        
+        private List<String> tokenize(String input) {
+            List<String> result = new ArrayList<>();
+            int i = 0;
+            while (i < input.length()) {
+                char c = input.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')' || c == '&' || c == '|' || c == '!') {
+                    result.add(String.valueOf(c));
+                    quoted.add(false);
+                    i++;
+                } else if (c == '"') {
+                    int end = input.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw error("unterminated quote");
+                    }
+                    result.add(input.substring(i + 1, end));
+                    quoted.add(true);
+                    i = end + 1;
+                } else {
+                    int start = i;
+                    while (i < input.length() && !Character.isWhitespace(input.charAt(i))
+                            && "()&|!\"".indexOf(input.charAt(i)) < 0) {
+                        i++;
+                    }
+                    result.add(input.substring(start, i));
+                    quoted.add(false);
+                }
+            }
+            return result;
+        }
+        
+        private static boolean isOperator(String token) {
+            return token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR") || token.equalsIgnoreCase("NOT")
+                    || token.equals("&") || token.equals("|") || token.equals(")");
+        }
+        
+        private static ApiException error(String reason) {
+            return new ApiException("Invalid tag expression: " + reason);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.syncora.common.tags;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag bitmaps for one user's items of one kind. Item ids and tag names are both mapped to
+ * dense ints through a dictionary, so every tag is a bitmap over item slots and expressions
+ * are plain word-wise AND/OR/ANDNOT. Slots of removed items are reused by the next insert.
+ */
+public final class TagIndex {
+    
+    private static final int[] NO_TAGS = new int[0];
+    
+    private final long loadedAt;
+    
+    // Item dictionary: id -> slot and back, plus the tag ids each slot currently carries
+    private final Map<String, Integer> slotByItem = new HashMap<>();
+    private final List<String> itemBySlot = new ArrayList<>();
+    private final List<int[]> tagsBySlot = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    
+    // Tag dictionary: name -> id and the bitmap of slots per tag id
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final List<BitSet> bitmaps = new ArrayList<>();
+    
+    TagIndex(long loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+    
+    static TagIndex build(List<? extends TagRow> rows, long loadedAt) {
+        TagIndex index = new TagIndex(loadedAt);
+        Map<String, List<String>> tagsByItem = new LinkedHashMap<>();
+        for (TagRow row : rows) {
+            List<String> tags = tagsByItem.computeIfAbsent(row.getItemId(), id -> new ArrayList<>());
+            if (row.getTag() != null) {
+                tags.add(row.getTag());
+            }
+        }
+        tagsByItem.forEach(index::put);
+        return index;
+    }
+    
+    boolean isExpired(long now, long ttlMillis) {
+        return now - loadedAt > ttlMillis;
+    }
+    
+    /** Replaces the tags of {@code itemId}, adding the item if it is new. */
+    public synchronized void put(String itemId, Collection<String> tags) {
+        Integer slot = slotByItem.get(itemId);
+        if (slot == null) {
+            slot = live.nextClearBit(0);
+            live.set(slot);
+            slotByItem.put(itemId, slot);
+            if (slot == itemBySlot.size()) {
+                itemBySlot.add(itemId);
+                tagsBySlot.add(NO_TAGS);
+            } else {
+                itemBySlot.set(slot, itemId);
+            }
+        } else {
+            clearTags(slot);
+        }
+        
+        LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.isBlank()) {
+                ids.add(tagId(tag));
+            }
+        }
+        int[] slotTags = ids.stream().mapToInt(Integer::intValue).toArray();
+        for (int tagId : slotTags) {
+            bitmaps.get(tagId).set(slot);
+        }
+        tagsBySlot.set(slot, slotTags);
+    }
+    
+    public synchronized void remove(String itemId) {
+        Integer slot = slotByItem.remove(itemId);
+        if (slot == null) {
+            return;
+        }
+        clearTags(slot);
+        tagsBySlot.set(slot, NO_TAGS);
+        itemBySlot.set(slot, null);
+        live.clear(slot);
+    }
+    
+    /** Ids of the items matching {@code expression}, in no particular order. */
+    public synchronized List<String> find(TagExpression expression) {
+        BitSet matches = expression.evaluate(this);
+        List<String> ids = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            ids.add(itemBySlot.get(slot));
+        }
+        return ids;
+    }
+    
+    public synchronized int count(TagExpression expression) {
+        return expression.evaluate(this).cardinality();
+    }
+    
+    /** Item count per tag, most used first; tags no longer on any item are left out. */
+    public synchronized Map<String, Integer> counts() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(tagNames.size());
+        for (int tagId = 0; tagId < tagNames.size(); tagId++) {
+            int count = bitmaps.get(tagId).cardinality();
+            if (count > 0) {
+                entries.add(Map.entry(tagNames.get(tagId), count));
+            }
+        }
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())));
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        entries.forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        return counts;
+    }
+    
+    // The accessors below are only called from evaluate(), i.e. while this index is locked,
+    // and always return copies the expression is free to mutate
+    
+    BitSet bitmap(String tag) {
+        Integer tagId = tagIds.get(tag);
+        return tagId != null ? (BitSet) bitmaps.get(tagId).clone() : new BitSet();
+    }
+    
+    BitSet all() {
+        return (BitSet) live.clone();
+    }
+    
+    private int tagId(String tag) {
+        return tagIds.computeIfAbsent(tag, name -> {
+            tagNames.add(name);
+            bitmaps.add(new BitSet());
+            return tagNames.size() - 1;
+        });
+    }
+    
+    private void clearTags(int slot) {
+        for (int tagId : tagsBySlot.get(slot)) {
+            bitmaps.get(tagId).clear(slot);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.syncora.common.tags;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds one {@link TagIndex} per user and item kind. A miss builds the index from a single
+ * (item, tag) query; after that the write paths keep it current, so tag filters and counts
+ * never hit the tag tables. Changes are applied after commit and indexes expire after
+ * {@code tags.index.ttl-seconds} so any drift heals itself.
+ */
+@Service
+@Slf4j
+public class TagIndexService {
+    
+    public enum Kind { NOTE, TASK }
+    
+    private record Key(Kind kind, String userId) {}
+    
+    private final long ttlMillis;
+    private final Map<Key, TagIndex> indexes = new ConcurrentHashMap<>();
+    
+    public TagIndexService(@Value("${tags.index.ttl-seconds:1800}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+    
+    /**
+     * Returns the user's index, building it with {@code loader} when missing or expired.
+     * The build runs inside compute() so an after-commit change for the same user waits
+     * for it instead of being applied to an index that is about to be replaced.
+     */
+    public TagIndex get(Kind kind, String userId, Supplier<List<? extends TagRow>> loader) {
+        long now = System.currentTimeMillis();
+        return indexes.compute(new Key(kind, userId), (key, index) -> {
+            if (index != null && !index.isExpired(now, ttlMillis)) {
+                return index;
+            }
+            List<? extends TagRow> rows = loader.get();
+            log.debug("Built {} tag index for user {} from {} rows", kind, userId, rows.size());
+            return TagIndex.build(rows, now);
+        });
+    }
+    
+    /** {@code itemId} now carries {@code tags} for each of {@code userIds}. */
+    public void itemSaved(Kind kind, Collection<String> userIds, String itemId, Collection<String> tags) {
+        List<String> snapshot = tags == null ? List.of() : tags.stream().filter(Objects::nonNull).toList();
+        for (String userId : userIds) {
+            afterCommit(new Key(kind, userId), index -> index.put(itemId, snapshot));
+        }
+    }
+    
+    public void itemRemoved(Kind kind, Collection<String> userIds, String itemId) {
+        for (String userId : userIds) {
+            afterCommit(new Key(kind, userId), index -> index.remove(itemId));
+        }
+    }
+    
+    public void evictUser(String userId) {
+        indexes.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+    
+    @Scheduled(fixedDelayString = "${tags.index.sweep-interval-ms:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        indexes.values().removeIf(index -> index.isExpired(now, ttlMillis));
+    }
+    
+    // Only indexes already in memory are adjusted; anything else is built fresh on next read
+    private void afterCommit(Key key, Consumer<TagIndex> change) {
+        Runnable apply = () -> indexes.computeIfPresent(key, (k, index) -> {
+            change.accept(index);
+            return index;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.syncora.common.tags;
+
+/**
+ * One (item, tag) pair used to build a {@link TagIndex}. Items without tags come back
+ * once with a null tag so they still count towards NOT expressions.
+ */
+public interface TagRow {
+    String getItemId();
+    String getTag();
+}
@@ -0,0 +1,15 @@
+package com.syncora.communication.chat.cache;
+
+public record ChatFileCacheStats(
+        long hits,
+        long misses,
+        double hitRatio,
+        long bytesServedFromCache,
+        long bytesServedFromStorage,
+        long admissions,
+        long rejections,
+        long evictions,
+        int entries,
+        long usedBytes,
+        long capacityBytes) {
+}
@@ -0,0 +1,66 @@
+package com.syncora.communication.chat.cache;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * File bytes plus the metadata needed to serve them. {@code data} is either a heap buffer
+ * straight from storage or a read-only view of an off-heap cache entry.
+ */
+public record ChatFileContent(String id, String fileName, String fileType, long fileSize, ByteBuffer data) {
+
+    /**
+     * Streams the content without copying it onto the heap.
+     */
+    public Resource asResource() {
+        ByteBuffer view = data.duplicate();
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return "chat file [" + id + "]";
+            }
+
+            @Override
+            public long contentLength() {
+                return view.remaining();
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new ByteBufferInputStream(view.duplicate());
+            }
+        };
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.syncora.communication.chat.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded LRU cache of hot chat file content, held off-heap in direct buffers.
+ * <p>
+ * Admission is frequency based: every lookup bumps a {@link FrequencySketch}, and when a new
+ * file would force evictions it only gets in if it has been requested more often than every
+ * entry it would push out. A file downloaded once therefore never displaces the working set,
+ * and anything larger than {@code storage.cache.max-entry-bytes} is never cached.
+ * <p>
+ * Loads are fenced against invalidation: a caller takes a {@link #loadToken()} before reading
+ * storage, and {@link #offer} drops content for an id that was invalidated after that token was
+ * issued, so a read racing a delete cannot put the deleted file back.
+ */
+@Component
+@Slf4j
+public class ChatFileContentCache {
+
+    private final long capacityBytes;
+    private final long maxEntryBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, ChatFileContent> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long usedBytes;
+
+    // Invalidation generation per recently invalidated id; older tombstones are folded into a floor
+    private static final int MAX_TOMBSTONES = 10_000;
+    private final LinkedHashMap<String, Long> tombstones = new LinkedHashMap<>();
+    private long generation;
+    private long tombstoneFloor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesFromCache = new LongAdder();
+    private final LongAdder bytesFromStorage = new LongAdder();
+    private final LongAdder admissions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ChatFileContentCache(@Value("${storage.cache.max-bytes:67108864}") long capacityBytes,
+                                @Value("${storage.cache.max-entry-bytes:4194304}") long maxEntryBytes) {
+        this.capacityBytes = capacityBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, capacityBytes);
+        // Size the sketch for the number of average-sized entries the cache can hold
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(1, capacityBytes / (64 * 1024))));
+    }
+
+    /**
+     * Returns a read-only view of the cached content, or {@code null} on a miss.
+     */
+    public ChatFileContent get(String fileId) {
+        ChatFileContent cached;
+        lock.lock();
+        try {
+            sketch.increment(fileId);
+            cached = entries.get(fileId);
+        } finally {
+            lock.unlock();
+        }
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        bytesFromCache.add(cached.fileSize());
+        return new ChatFileContent(cached.id(), cached.fileName(), cached.fileType(),
+                cached.fileSize(), cached.data().duplicate());
+    }
+
+    /**
+     * Token to take before reading a file from storage and to pass back to {@link #offer}.
+     */
+    public long loadToken() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Offers content loaded from storage after a miss; it is copied off-heap only if admitted,
+     * and dropped if the id was invalidated after {@code loadToken} was taken.
+     */
+    public void offer(ChatFileContent content, long loadToken) {
+        bytesFromStorage.add(content.fileSize());
+        long size = content.data().remaining();
+        if (size > maxEntryBytes) {
+            rejections.increment();
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (entries.containsKey(content.id()) || invalidatedSince(content.id(), loadToken)) {
+                return;
+            }
+            List<String> victims = selectVictims(content.id(), size);
+            if (victims == null) {
+                rejections.increment();
+                return;
+            }
+            for (String victim : victims) {
+                usedBytes -= entries.remove(victim).data().capacity();
+                evictions.increment();
+            }
+
+            ByteBuffer offHeap = ByteBuffer.allocateDirect((int) size);
+            offHeap.put(content.data().duplicate()).flip();
+            entries.put(content.id(), new ChatFileContent(content.id(), content.fileName(),
+                    content.fileType(), content.fileSize(), offHeap.asReadOnlyBuffer()));
+            usedBytes += size;
+            admissions.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String fileId) {
+        lock.lock();
+        try {
+            ChatFileContent removed = entries.remove(fileId);
+            if (removed != null) {
+                usedBytes -= removed.data().capacity();
+            }
+            tombstones.remove(fileId);
+            tombstones.put(fileId, ++generation);
+            if (tombstones.size() > MAX_TOMBSTONES) {
+                Iterator<Map.Entry<String, Long>> oldest = tombstones.entrySet().iterator();
+                tombstoneFloor = oldest.next().getValue();
+                oldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ChatFileCacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size;
+        long used;
+        lock.lock();
+        try {
+            size = entries.size();
+            used = usedBytes;
+        } finally {
+            lock.unlock();
+        }
+        return new ChatFileCacheStats(
+                hitCount,
+                missCount,
+                lookups == 0 ? 0.0 : (double) hitCount / lookups,
+                bytesFromCache.sum(),
+                bytesFromStorage.sum(),
+                admissions.sum(),
+                rejections.sum(),
+                evictions.sum(),
+                size,
+                used,
+                capacityBytes);
+    }
+
+    // A load older than a forgotten tombstone cannot be checked per id, so it is rejected outright
+    private boolean invalidatedSince(String fileId, long loadToken) {
+        if (loadToken < tombstoneFloor) {
+            return true;
+        }
+        Long invalidatedAt = tombstones.get(fileId);
+        return invalidatedAt != null && invalidatedAt > loadToken;
+    }
+
+    /**
+     * Picks the LRU entries that must go for {@code size} more bytes to fit, or returns
+     * {@code null} if any of them is at least as popular as the candidate.
+     */
+    private List<String> selectVictims(String candidateId, long size) {
+        List<String> victims = new ArrayList<>();
+        long free = capacityBytes - usedBytes;
+        if (free >= size) {
+            return victims;
+        }
+        int candidateFrequency = sketch.frequency(candidateId);
+        Iterator<Map.Entry<String, ChatFileContent>> lru = entries.entrySet().iterator();
+        while (free < size && lru.hasNext()) {
+            Map.Entry<String, ChatFileContent> victim = lru.next();
+            if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                return null;
+            }
+            victims.add(victim.getKey());
+            free += victim.getValue().data().capacity();
+        }
+        return free >= size ? victims : null;
+    }
+}
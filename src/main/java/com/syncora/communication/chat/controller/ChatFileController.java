@@ -1,13 +1,17 @@
 package com.syncora.communication.chat.controller;
 
+import com.syncora.communication.chat.cache.ChatFileCacheStats;
+import com.syncora.communication.chat.cache.ChatFileContent;
 import com.syncora.communication.chat.dto.ChatFileDto;
-import com.syncora.communication.chat.entity.ChatFile;
 import com.syncora.communication.chat.service.ChatFileService;
+import com.syncora.security.DownloadUrlSigner;
+import com.syncora.subscription.exception.SubscriptionLimitException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -15,6 +19,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/chat/files")
@@ -23,6 +29,7 @@ import java.io.IOException;
 public class ChatFileController {
     
     private final ChatFileService chatFileService;
+    private final DownloadUrlSigner downloadUrlSigner;
     
     @PostMapping("/upload")
     public ResponseEntity<ChatFileDto> uploadFile(
@@ -39,6 +46,9 @@ public class ChatFileController {
         } catch (IllegalArgumentException e) {
             log.error("Invalid file upload request", e);
             return ResponseEntity.badRequest().build();
+        } catch (SubscriptionLimitException e) {
+            log.warn("Storage quota exceeded for {}: {}", authentication.getName(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
     }
     
@@ -47,22 +57,55 @@ public class ChatFileController {
             @PathVariable String fileId,
             Authentication authentication) {
         try {
-            ChatFile chatFile = chatFileService.getFile(fileId);
+            ChatFileContent content = chatFileService.getFile(fileId);
             
-            ByteArrayResource resource = new ByteArrayResource(chatFile.getFileData());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(content.fileType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, 
+                            "attachment; filename=\"" + content.fileName() + "\"")
+                    .contentLength(content.fileSize())
+                    .body(content.asResource());
+        } catch (RuntimeException e) {
+            log.error("Error downloading file: {}", fileId, e);
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Stateless download via a URL issued in ChatFileDto.downloadUrl. The HMAC is checked
+     * without touching the database, and the response may be cached until the URL expires.
+     */
+    @GetMapping("/signed/{fileId}")
+    public ResponseEntity<Resource> downloadSignedFile(
+            @PathVariable String fileId,
+            @RequestParam long expires,
+            @RequestParam String signature) {
+        if (!downloadUrlSigner.verify(fileId, expires, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            ChatFileContent content = chatFileService.getFile(fileId);
+            long maxAge = Math.max(0, expires - Instant.now().getEpochSecond());
             
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(chatFile.getFileType()))
+                    .contentType(MediaType.parseMediaType(content.fileType()))
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + chatFile.getFileName() + "\"")
-                    .contentLength(chatFile.getFileSize())
-                    .body(resource);
+                            "attachment; filename=\"" + content.fileName() + "\"")
+                    .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic())
+                    .eTag(content.id())
+                    .contentLength(content.fileSize())
+                    .body(content.asResource());
         } catch (RuntimeException e) {
             log.error("Error downloading file: {}", fileId, e);
             return ResponseEntity.notFound().build();
         }
     }
     
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ChatFileCacheStats> getCacheStats() {
+        return ResponseEntity.ok(chatFileService.getCacheStats());
+    }
+    
     @DeleteMapping("/{fileId}")
     public ResponseEntity<Void> deleteFile(
             @PathVariable String fileId,
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -40,6 +42,10 @@ public class ChatFile {
     @Column(name = "uploaded_at", nullable = false, updatable = false)
     private LocalDateTime uploadedAt;
     
+    // Lazy so loading the entity for metadata never pulls the blob (needs bytecode enhancement)
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "file_data", columnDefinition = "BYTEA", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private byte[] fileData; // Store file content as binary
 }
@@ -0,0 +1,16 @@
+package com.syncora.communication.chat.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata-only view of a chat file, used for listings so blob bytes are never selected.
+ */
+public interface ChatFileMetadata {
+    String getId();
+    String getMessageId();
+    String getFileName();
+    Long getFileSize();
+    String getFileType();
+    String getUploadedBy();
+    LocalDateTime getUploadedAt();
+}
@@ -1,20 +1,85 @@
 package com.syncora.communication.chat.repository;
 
 import com.syncora.communication.chat.entity.ChatFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ChatFileRepository extends JpaRepository<ChatFile, String> {
     
-    List<ChatFile> findByMessageId(String messageId);
-    
-    List<ChatFile> findByUploadedBy(String uploadedBy);
+    @Query("""
+            SELECT f.id AS id, f.messageId AS messageId, f.fileName AS fileName, f.fileSize AS fileSize,
+                   f.fileType AS fileType, f.uploadedBy AS uploadedBy, f.uploadedAt AS uploadedAt
+            FROM ChatFile f
+            WHERE f.messageId = :messageId
+            """)
+    List<ChatFileMetadata> findMetadataByMessageId(@Param("messageId") String messageId);
+
+    @Query("""
+            SELECT f.id AS id, f.messageId AS messageId, f.fileName AS fileName, f.fileSize AS fileSize,
+                   f.fileType AS fileType, f.uploadedBy AS uploadedBy, f.uploadedAt AS uploadedAt
+            FROM ChatFile f
+            WHERE f.uploadedBy = :uploadedBy
+            ORDER BY f.uploadedAt DESC
+            """)
+    List<ChatFileMetadata> findMetadataByUploadedBy(@Param("uploadedBy") String uploadedBy);
     
     @NonNull 
     Optional<ChatFile> findById(@NonNull String id);
+
+    @Query("""
+            SELECT f.id AS id, f.messageId AS messageId, f.fileName AS fileName, f.fileSize AS fileSize,
+                   f.fileType AS fileType, f.uploadedBy AS uploadedBy, f.uploadedAt AS uploadedAt
+            FROM ChatFile f
+            WHERE f.id = :id
+            """)
+    Optional<ChatFileMetadata> findMetadataById(@Param("id") String id);
+
+    @Query("SELECT f.fileData FROM ChatFile f WHERE f.id = :id")
+    Optional<byte[]> findFileDataById(@Param("id") String id);
+
+    // 🔹 Keyset page of files past retention that no live (or recently deleted) message references.
+    //    Only metadata is selected so the sweep never pulls blob bytes.
+    @Query("""
+            SELECT f.id AS id, f.fileSize AS fileSize, f.uploadedBy AS uploadedBy
+            FROM ChatFile f
+            WHERE f.id > :afterId
+              AND f.uploadedAt < :cutoff
+              AND NOT EXISTS (
+                    SELECT 1 FROM Message m
+                    WHERE (m.id = f.messageId OR m.fileId = f.id)
+                      AND (m.deleted = false OR m.deletedAt >= :cutoff))
+            ORDER BY f.id ASC
+            """)
+    List<OrphanedChatFile> findOrphanedAfter(@Param("afterId") String afterId,
+                                             @Param("cutoff") LocalDateTime cutoff,
+                                             Pageable pageable);
+
+    // 🔹 Re-checks the orphan condition so a file attached between select and delete survives
+    @Modifying
+    @Transactional
+    @Query("""
+            DELETE FROM ChatFile f
+            WHERE f.id IN :ids
+              AND f.uploadedAt < :cutoff
+              AND NOT EXISTS (
+                    SELECT 1 FROM Message m
+                    WHERE (m.id = f.messageId OR m.fileId = f.id)
+                      AND (m.deleted = false OR m.deletedAt >= :cutoff))
+            """)
+    int deleteOrphanedByIdIn(@Param("ids") Collection<String> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT f.id FROM ChatFile f WHERE f.id IN :ids")
+    List<String> findIdsByIdIn(@Param("ids") Collection<String> ids);
 }
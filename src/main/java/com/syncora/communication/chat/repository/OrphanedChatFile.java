@@ -0,0 +1,10 @@
+package com.syncora.communication.chat.repository;
+
+/**
+ * Metadata-only view of a chat file selected by the storage sweeper.
+ */
+public interface OrphanedChatFile {
+    String getId();
+    Long getFileSize();
+    String getUploadedBy();
+}
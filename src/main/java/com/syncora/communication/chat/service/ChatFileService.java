@@ -1,15 +1,25 @@
 package com.syncora.communication.chat.service;
 
+import com.syncora.communication.chat.cache.ChatFileCacheStats;
+import com.syncora.communication.chat.cache.ChatFileContent;
+import com.syncora.communication.chat.cache.ChatFileContentCache;
 import com.syncora.communication.chat.dto.ChatFileDto;
 import com.syncora.communication.chat.entity.ChatFile;
+import com.syncora.communication.chat.repository.ChatFileMetadata;
 import com.syncora.communication.chat.repository.ChatFileRepository;
+import com.syncora.security.DownloadUrlSigner;
+import com.syncora.storage.StorageQuotaService;
+import com.syncora.storage.StorageReservation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,10 +29,14 @@ import java.util.stream.Collectors;
 public class ChatFileService {
     
     private final ChatFileRepository chatFileRepository;
+    private final StorageQuotaService storageQuotaService;
+    private final DownloadUrlSigner downloadUrlSigner;
+    private final ChatFileContentCache contentCache;
     
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB limit
     
-    @Transactional
+    // Not @Transactional: the quota reservation and the file insert commit separately so the
+    // user's ledger row is not locked while the upload is written.
     public ChatFileDto uploadFile(MultipartFile file, String uploadedBy, String messageId) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -32,35 +46,72 @@ public class ChatFileService {
             throw new IllegalArgumentException("File size exceeds maximum limit of 10MB");
         }
         
-        ChatFile chatFile = ChatFile.builder()
-                .fileName(file.getOriginalFilename())
-                .fileSize(file.getSize())
-                .fileType(file.getContentType())
-                .uploadedBy(uploadedBy)
-                .messageId(messageId)
-                .fileData(file.getBytes())
-                .build();
-        
-        chatFile = chatFileRepository.save(chatFile);
+        StorageReservation reservation = storageQuotaService.reserve(uploadedBy, file.getSize());
+        ChatFile chatFile;
+        try {
+            chatFile = ChatFile.builder()
+                    .fileName(file.getOriginalFilename())
+                    .fileSize(file.getSize())
+                    .fileType(file.getContentType())
+                    .uploadedBy(uploadedBy)
+                    .messageId(messageId)
+                    .fileData(file.getBytes())
+                    .build();
+            
+            chatFile = chatFileRepository.save(chatFile);
+        } catch (IOException | RuntimeException e) {
+            storageQuotaService.release(reservation);
+            throw e;
+        }
+        try {
+            storageQuotaService.commit(reservation);
+        } catch (RuntimeException e) {
+            // The reservation expired mid-upload and the bytes no longer fit; undo the upload
+            chatFileRepository.deleteById(chatFile.getId());
+            throw e;
+        }
         log.info("File uploaded: {} ({} bytes) by {}", chatFile.getFileName(), chatFile.getFileSize(), uploadedBy);
         
         return toDto(chatFile);
     }
     
-    public ChatFile getFile(String fileId) {
-        return chatFileRepository.findById(fileId)
+    /**
+     * Hot files are served from the off-heap content cache; misses read metadata and bytes
+     * from storage and are offered to the cache, which decides whether to keep them.
+     */
+    public ChatFileContent getFile(String fileId) {
+        ChatFileContent cached = contentCache.get(fileId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long loadToken = contentCache.loadToken();
+        ChatFileMetadata metadata = chatFileRepository.findMetadataById(fileId)
+                .orElseThrow(() -> new RuntimeException("File not found with id: " + fileId));
+        byte[] data = chatFileRepository.findFileDataById(fileId)
                 .orElseThrow(() -> new RuntimeException("File not found with id: " + fileId));
+        
+        ChatFileContent content = new ChatFileContent(metadata.getId(), metadata.getFileName(),
+                metadata.getFileType(), metadata.getFileSize(), ByteBuffer.wrap(data));
+        contentCache.offer(content, loadToken);
+        return content;
     }
     
+    public ChatFileCacheStats getCacheStats() {
+        return contentCache.stats();
+    }
+    
+    @Transactional(readOnly = true)
     public List<ChatFileDto> getFilesByMessageId(String messageId) {
-        return chatFileRepository.findByMessageId(messageId)
+        return chatFileRepository.findMetadataByMessageId(messageId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<ChatFileDto> getFilesByUser(String userEmail) {
-        return chatFileRepository.findByUploadedBy(userEmail)
+        return chatFileRepository.findMetadataByUploadedBy(userEmail)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -68,10 +119,28 @@ public class ChatFileService {
     
     @Transactional
     public void deleteFile(String fileId) {
+        ChatFileMetadata metadata = chatFileRepository.findMetadataById(fileId)
+                .orElseThrow(() -> new RuntimeException("File not found with id: " + fileId));
         chatFileRepository.deleteById(fileId);
+        invalidateAfterCommit(fileId);
+        storageQuotaService.releaseUsed(metadata.getUploadedBy(), metadata.getFileSize());
         log.info("File deleted: {}", fileId);
     }
     
+    // Evicting before commit would let a concurrent read cache the row again until the delete lands
+    private void invalidateAfterCommit(String fileId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    contentCache.invalidate(fileId);
+                }
+            });
+        } else {
+            contentCache.invalidate(fileId);
+        }
+    }
+    
     private ChatFileDto toDto(ChatFile chatFile) {
         return ChatFileDto.builder()
                 .id(chatFile.getId())
@@ -81,7 +150,20 @@ public class ChatFileService {
                 .fileType(chatFile.getFileType())
                 .uploadedBy(chatFile.getUploadedBy())
                 .uploadedAt(chatFile.getUploadedAt())
-                .downloadUrl("/api/chat/files/" + chatFile.getId() + "/download")
+                .downloadUrl(downloadUrlSigner.signedDownloadUrl(chatFile.getId()))
+                .build();
+    }
+    
+    private ChatFileDto toDto(ChatFileMetadata metadata) {
+        return ChatFileDto.builder()
+                .id(metadata.getId())
+                .messageId(metadata.getMessageId())
+                .fileName(metadata.getFileName())
+                .fileSize(metadata.getFileSize())
+                .fileType(metadata.getFileType())
+                .uploadedBy(metadata.getUploadedBy())
+                .uploadedAt(metadata.getUploadedAt())
+                .downloadUrl(downloadUrlSigner.signedDownloadUrl(metadata.getId()))
                 .build();
     }
 }
@@ -0,0 +1,50 @@
+package com.syncora.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Applies the schema Hibernate cannot express (generated search columns, GIN indexes, backfills
+ * and the legacy email migration) on every start, whichever properties file the deployment
+ * uses. Running it from code rather than through {@code spring.sql.init} means a deployment
+ * cannot boot without the columns the native search queries need; a failing script stops
+ * startup. Every script is idempotent.
+ */
+@Component
+@Slf4j
+public class DatabaseSchemaInitializer {
+
+    // Order matters: the legacy migration fills tables the later backfills read
+    private static final String[] SCRIPTS = {
+            "db/email-legacy.sql",
+            "db/email-search.sql",
+            "db/email-threads.sql",
+            "db/email-attachments.sql",
+            "db/note-search.sql",
+            "db/storage-usage.sql"
+    };
+
+    private final DataSource dataSource;
+
+    // Taking the EntityManagerFactory makes this run after Hibernate's schema update created the tables
+    public DatabaseSchemaInitializer(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void apply() {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        for (String script : SCRIPTS) {
+            populator.addScript(new ClassPathResource(script));
+        }
+        populator.setSqlScriptEncoding("UTF-8");
+        populator.execute(dataSource);
+        log.info("Applied {} schema scripts", SCRIPTS.length);
+    }
+}
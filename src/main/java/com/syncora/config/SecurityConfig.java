@@ -42,6 +42,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/api/chat/files/signed/**").permitAll()
+                        .requestMatchers("/api/chat/files/cache/stats").hasRole("ADMIN")
                         .requestMatchers("/api/subscriptions/plans/public").permitAll()
                         .requestMatchers("/oauth2/**").permitAll()
                         .requestMatchers("/login/**").permitAll()
@@ -0,0 +1,14 @@
+package com.syncora.config;
+
+/**
+ * Feature-specific access rule for broker destinations, applied by {@link WebSocketSecurityConfig}
+ * to every SUBSCRIBE on the shared STOMP broker. Destinations a guard supports can only be
+ * subscribed to by a signed-in user the guard accepts, and never published to by clients.
+ */
+public interface StompSubscriptionGuard {
+
+    /** Whether {@code destination} (already checked to be exact, without patterns) belongs to this guard. */
+    boolean supports(String destination);
+
+    boolean canSubscribe(String destination, String email);
+}
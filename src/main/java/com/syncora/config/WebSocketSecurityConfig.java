@@ -0,0 +1,136 @@
+package com.syncora.config;
+
+import com.syncora.security.JwtProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Authentication and subscription rules for the shared STOMP broker, whichever endpoint a
+ * client connected through.
+ * <ul>
+ *   <li>CONNECT with an {@code Authorization: Bearer} header makes the token's user the session
+ *       principal; an invalid token is refused. Connecting without one stays allowed for the
+ *       public topics.</li>
+ *   <li>SUBSCRIBE must name one exact destination. The simple broker matches subscriptions as
+ *       patterns, so {@code /topic/**} would otherwise receive every message on the broker.</li>
+ *   <li>{@code /user/...} destinations need a principal, and the per-session destinations they
+ *       resolve to ({@code /queue/email-user{session}}) cannot be subscribed to directly.</li>
+ *   <li>Destinations claimed by a {@link StompSubscriptionGuard} need a principal the guard
+ *       accepts. Clients cannot SEND to those or to user destinations.</li>
+ * </ul>
+ */
+@Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE + 99)
+@RequiredArgsConstructor
+public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer {
+
+    private static final String USER_PREFIX = "/user/";
+    private static final String RESOLVED_USER_MARKER = "-user";
+
+    private final JwtProvider jwtProvider;
+    // Resolved per frame: guards may depend on the messaging template this configurer helps build
+    private final ObjectProvider<StompSubscriptionGuard> guards;
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() == null) {
+                    return message;
+                }
+                switch (accessor.getCommand()) {
+                    case CONNECT -> authenticate(accessor);
+                    case SUBSCRIBE -> authorizeSubscribe(accessor.getDestination(), accessor.getUser());
+                    case SEND -> authorizeSend(accessor.getDestination());
+                    default -> {
+                    }
+                }
+                return message;
+            }
+        });
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header == null) {
+            return;
+        }
+        String token = header.startsWith("Bearer ") ? header.substring(7) : null;
+        String email = token != null && jwtProvider.isTokenValid(token) ? jwtProvider.extractEmail(token) : null;
+        if (email == null) {
+            throw new MessagingException("Invalid access token");
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private void authorizeSubscribe(String destination, Principal user) {
+        if (!isExact(destination)) {
+            throw new MessagingException("Subscriptions must name a single destination");
+        }
+        if (isResolvedUserDestination(destination)) {
+            throw new MessagingException("Subscribe to /user destinations instead");
+        }
+        if (destination.startsWith(USER_PREFIX) && user == null) {
+            throw new MessagingException("Authentication required for " + destination);
+        }
+        guards.orderedStream()
+                .filter(guard -> guard.supports(destination))
+                .forEach(guard -> {
+                    if (user == null || !guard.canSubscribe(destination, user.getName())) {
+                        throw new MessagingException("Not allowed to subscribe to " + destination);
+                    }
+                });
+    }
+
+    // Only the server publishes to per-user and guarded destinations
+    private void authorizeSend(String destination) {
+        if (destination == null) {
+            return;
+        }
+        if (!isExact(destination) || destination.startsWith(USER_PREFIX) || isResolvedUserDestination(destination)
+                || guards.orderedStream().anyMatch(guard -> guard.supports(destination))) {
+            throw new MessagingException("Clients cannot send to " + destination);
+        }
+    }
+
+    // No wildcards or path variables, and no empty, "." or ".." segments that could alias another destination
+    private static boolean isExact(String destination) {
+        if (destination == null || !destination.startsWith("/") || destination.length() == 1) {
+            return false;
+        }
+        for (int i = 0; i < destination.length(); i++) {
+            char c = destination.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}' || Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        for (String segment : destination.substring(1).split("/", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isResolvedUserDestination(String destination) {
+        String last = destination.substring(destination.lastIndexOf('/') + 1);
+        return last.contains(RESOLVED_USER_MARKER);
+    }
+}
@@ -0,0 +1,190 @@
+package com.syncora.email.config;
+
+import com.syncora.common.seed.DemoSeeder;
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import com.syncora.email.repository.EmailMessageRepository;
+import com.syncora.email.repository.MailboxEntryRepository;
+import com.syncora.email.service.MailboxCounterService;
+import com.syncora.user.entity.User;
+import com.syncora.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample mailbox for the demo user. Loaded in the background by the demo seed runner and
+ * only under the {@code demo} profile.
+ */
+@Component
+@Profile("demo")
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDemoSeeder implements DemoSeeder {
+    
+    private final MailboxEntryRepository mailboxEntryRepository;
+    private final EmailMessageRepository emailMessageRepository;
+    private final UserRepository userRepository;
+    private final MailboxCounterService mailboxCounterService;
+    
+    @Value("${seed.demo.email-user:testuser15@gmail.com}")
+    private String demoUserEmail;
+    
+    @Override
+    public String name() {
+        return "email";
+    }
+    
+    @Override
+    public boolean isSeeded() {
+        return mailboxEntryRepository.existsByOwnerEmail(demoUserEmail);
+    }
+    
+    @Override
+    @Transactional
+    public int seed() {
+        User firstUser = userRepository.findByEmail(demoUserEmail).orElse(null);
+        if (firstUser == null) {
+            log.warn("User {} not found, skipping email demo data", demoUserEmail);
+            return 0;
+        }
+        
+        String userEmail = firstUser.getEmail();
+        
+        List<MailboxEntry> sampleEmails = new ArrayList<>();
+        
+        // Inbox emails
+        sampleEmails.add(MailboxEntry.builder()
+                .message(EmailMessage.builder()
+                        .from("team@syncora.com")
+                        .fromName("Syncora Team")
+                        .to(List.of(userEmail))
+                        .subject("Welcome to Syncora!")
+                        .body("Hi " + firstUser.getName() + ",\n\nWelcome to Syncora! We're excited to have you on board. Syncora is your all-in-one collaboration platform for teams.\n\nGet started by:\n- Inviting team members\n- Creating your first note\n- Starting a video call\n\nBest regards,\nThe Syncora Team")
+                        .sentAt(LocalDateTime.now().minusDays(1))
+                        .build())
+                .isRead(false)
+                .isStarred(true)
+                .folder(EmailFolder.INBOX)
+                .ownerEmail(userEmail)
+                .sentAt(LocalDateTime.now().minusDays(1))
+                .build());
+        
+        sampleEmails.add(MailboxEntry.builder()
+                .message(EmailMessage.builder()
+                        .from("notifications@syncora.com")
+                        .fromName("Syncora Notifications")
+                        .to(List.of(userEmail))
+                        .subject("Your daily summary")
+                        .body("Good morning!\n\nHere's your daily summary:\n- 3 new messages in your inbox\n- 2 tasks due today\n- 1 upcoming meeting\n\nHave a productive day!")
+                        .sentAt(LocalDateTime.now().minusHours(8))
+                        .build())
+                .isRead(false)
+                .isStarred(false)
+                .folder(EmailFolder.INBOX)
+                .ownerEmail(userEmail)
+                .sentAt(LocalDateTime.now().minusHours(8))
+                .build());
+        
+        sampleEmails.add(MailboxEntry.builder()
+                .message(EmailMessage.builder()
+                        .from("support@syncora.com")
+                        .fromName("Syncora Support")
+                        .to(List.of(userEmail))
+                        .subject("Tips for getting the most out of Syncora")
+                        .body("Hi there,\n\nHere are some tips to help you get the most out of Syncora:\n\n1. Use keyboard shortcuts for faster navigation\n2. Organize your notes with labels\n3. Set up recurring tasks for regular activities\n4. Use the whiteboard for brainstorming sessions\n\nNeed help? Just reply to this email!\n\nCheers,\nSupport Team")
+                        .sentAt(LocalDateTime.now().minusDays(2))
+                        .build())
+                .isRead(true)
+                .isStarred(false)
+                .folder(EmailFolder.INBOX)
+                .ownerEmail(userEmail)
+                .sentAt(LocalDateTime.now().minusDays(2))
+                .build());
+        
+        // Get another user for collaboration email (if exists)
+        User secondUser = userRepository.findFirstByEmailNot(userEmail).orElse(null);
+        if (secondUser != null) {
+            sampleEmails.add(MailboxEntry.builder()
+                    .message(EmailMessage.builder()
+                            .from(secondUser.getEmail())
+                            .fromName(secondUser.getName())
+                            .to(List.of(userEmail))
+                            .subject("Project collaboration")
+                            .body("Hey " + firstUser.getName() + ",\n\nI'd like to collaborate with you on the new project. Can we schedule a video call this week to discuss the details?\n\nLet me know your availability.\n\nThanks,\n" + secondUser.getName())
+                            .sentAt(LocalDateTime.now().minusHours(3))
+                            .build())
+                    .isRead(false)
+                    .isStarred(true)
+                    .folder(EmailFolder.INBOX)
+                    .ownerEmail(userEmail)
+                    .sentAt(LocalDateTime.now().minusHours(3))
+                    .build());
+        }
+        
+        // Sent emails
+        sampleEmails.add(MailboxEntry.builder()
+                .message(EmailMessage.builder()
+                        .from(userEmail)
+                        .fromName(firstUser.getName())
+                        .to(List.of("feedback@syncora.com"))
+                        .subject("Feedback on Syncora")
+                        .body("Hi,\n\nI've been using Syncora for a few days now and I'm really impressed with the features. The interface is clean and intuitive.\n\nOne suggestion: it would be great to have email notifications for chat messages.\n\nKeep up the great work!")
+                        .sentAt(LocalDateTime.now().minusDays(1).minusHours(5))
+                        .build())
+                .isRead(true)
+                .isStarred(false)
+                .folder(EmailFolder.SENT)
+                .ownerEmail(userEmail)
+                .sentAt(LocalDateTime.now().minusDays(1).minusHours(5))
+                .build());
+        
+        // Drafts
+        sampleEmails.add(MailboxEntry.builder()
+                .message(EmailMessage.builder()
+                        .from(userEmail)
+                        .fromName(firstUser.getName())
+                        .to(List.of("team@example.com"))
+                        .subject("Meeting notes - Draft")
+                        .body("Hi team,\n\nHere are the notes from our last meeting:\n\n[To be completed...]")
+                        .sentAt(LocalDateTime.now().minusHours(12))
+                        .build())
+                .isRead(false)
+                .isStarred(false)
+                .folder(EmailFolder.DRAFTS)
+                .ownerEmail(userEmail)
+                .sentAt(LocalDateTime.now().minusHours(12))
+                .build());
+        
+        // Archive
+        sampleEmails.add(MailboxEntry.builder()
+                .message(EmailMessage.builder()
+                        .from("newsletter@syncora.com")
+                        .fromName("Syncora Newsletter")
+                        .to(List.of(userEmail))
+                        .subject("Monthly newsletter - October 2025")
+                        .body("What's new in Syncora this month:\n\n- New video calling features\n- Improved whiteboard collaboration\n- Performance enhancements\n\nRead more on our blog!")
+                        .sentAt(LocalDateTime.now().minusDays(5))
+                        .build())
+                .isRead(true)
+                .isStarred(false)
+                .folder(EmailFolder.ARCHIVE)
+                .ownerEmail(userEmail)
+                .sentAt(LocalDateTime.now().minusDays(5))
+                .build());
+        
+        // One transaction, so both saveAll calls go out as JDBC batches
+        emailMessageRepository.saveAll(sampleEmails.stream().map(MailboxEntry::getMessage).toList());
+        mailboxEntryRepository.saveAll(sampleEmails);
+        mailboxCounterService.evict(userEmail);
+        return sampleEmails.size();
+    }
+}
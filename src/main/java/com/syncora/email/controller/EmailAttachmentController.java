@@ -0,0 +1,77 @@
+package com.syncora.email.controller;
+
+import com.syncora.common.response.ApiResponse;
+import com.syncora.email.dto.EmailAttachmentDto;
+import com.syncora.email.service.AttachmentContent;
+import com.syncora.email.service.EmailAttachmentService;
+import com.syncora.security.JwtProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/emails/attachments")
+@RequiredArgsConstructor
+public class EmailAttachmentController {
+    
+    private final EmailAttachmentService emailAttachmentService;
+    private final JwtProvider jwtProvider;
+    
+    private String extractEmail(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            String token = header.substring(7);
+            String email = jwtProvider.extractEmail(token);
+            if (email == null) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+            }
+            return email;
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header");
+    }
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<EmailAttachmentDto>> upload(
+            HttpServletRequest request,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        
+        String ownerEmail = extractEmail(request);
+        EmailAttachmentDto attachment = emailAttachmentService.upload(ownerEmail, file);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attachment uploaded", attachment));
+    }
+    
+    /**
+     * Streams the file from disk. The content hash is a strong ETag, so If-None-Match answers
+     * 304, and Spring serves Range requests from the file resource as 206 partial content.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> download(
+            HttpServletRequest request,
+            @PathVariable String id) {
+        
+        String ownerEmail = extractEmail(request);
+        AttachmentContent content = emailAttachmentService.open(id, ownerEmail);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(content.mimeType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(content.filename(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .eTag(content.contentHash())
+                .body(content.resource());
+    }
+}
@@ -1,8 +1,12 @@
 package com.syncora.email.controller;
 
 import com.syncora.common.response.ApiResponse;
+import com.syncora.email.dto.BulkOperationResultDto;
 import com.syncora.email.dto.EmailComposeRequest;
 import com.syncora.email.dto.EmailDto;
+import com.syncora.email.dto.EmailFolderCountDto;
+import com.syncora.email.dto.EmailPageDto;
+import com.syncora.email.dto.EmailThreadDto;
 import com.syncora.email.service.EmailService;
 import com.syncora.security.JwtProvider;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +55,59 @@ public class EmailController {
         return ResponseEntity.ok(new ApiResponse<>(true, "OK", emails));
     }
     
+    @GetMapping("/folder/{folder}")
+    public ResponseEntity<ApiResponse<EmailPageDto>> listFolder(
+            HttpServletRequest request,
+            @PathVariable String folder,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        String ownerEmail = extractEmail(request);
+        EmailPageDto page = emailService.listFolder(ownerEmail, folder, cursor, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", page));
+    }
+    
+    @GetMapping("/labels")
+    public ResponseEntity<ApiResponse<Map<String, EmailFolderCountDto>>> getLabelCounts(HttpServletRequest request) {
+        String ownerEmail = extractEmail(request);
+        Map<String, EmailFolderCountDto> counts = emailService.getLabelCounts(ownerEmail);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", counts));
+    }
+    
+    @GetMapping("/labels/{label}")
+    public ResponseEntity<ApiResponse<EmailPageDto>> listLabel(
+            HttpServletRequest request,
+            @PathVariable String label,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        String ownerEmail = extractEmail(request);
+        EmailPageDto page = emailService.listLabel(ownerEmail, label, cursor, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", page));
+    }
+    
+    @GetMapping("/threads")
+    public ResponseEntity<ApiResponse<List<EmailThreadDto>>> listThreads(
+            HttpServletRequest request,
+            @RequestParam(required = false) String folder,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        String ownerEmail = extractEmail(request);
+        List<EmailThreadDto> threads = emailService.listThreads(ownerEmail, folder, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", threads));
+    }
+    
+    @GetMapping("/threads/{threadId}")
+    public ResponseEntity<ApiResponse<List<EmailDto>>> getThread(
+            HttpServletRequest request,
+            @PathVariable String threadId) {
+        
+        String ownerEmail = extractEmail(request);
+        List<EmailDto> emails = emailService.getThread(ownerEmail, threadId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", emails));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<EmailDto>> getEmail(
             HttpServletRequest request,
@@ -114,8 +172,35 @@ public class EmailController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Email moved", null));
     }
     
+    @DeleteMapping("/{id}/schedule")
+    public ResponseEntity<ApiResponse<Void>> cancelScheduledSend(
+            HttpServletRequest request,
+            @PathVariable String id) {
+        
+        String ownerEmail = extractEmail(request);
+        emailService.cancelScheduledSend(id, ownerEmail);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Scheduled send cancelled", null));
+    }
+    
+    @PostMapping("/{id}/snooze")
+    public ResponseEntity<ApiResponse<Void>> snooze(
+            HttpServletRequest request,
+            @PathVariable String id,
+            @RequestBody Map<String, String> payload) {
+        
+        String ownerEmail = extractEmail(request);
+        LocalDateTime until;
+        try {
+            until = LocalDateTime.parse(payload.get("until"));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid snooze time");
+        }
+        emailService.snooze(id, ownerEmail, until);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Email snoozed", null));
+    }
+    
     @PostMapping("/bulk/read")
-    public ResponseEntity<ApiResponse<Void>> bulkMarkAsRead(
+    public ResponseEntity<ApiResponse<BulkOperationResultDto>> bulkMarkAsRead(
             HttpServletRequest request,
             @RequestBody Map<String, Object> payload) {
         
@@ -123,12 +208,12 @@ public class EmailController {
         @SuppressWarnings("unchecked")
         List<String> ids = (List<String>) payload.get("ids");
         Boolean isRead = (Boolean) payload.get("isRead");
-        emailService.bulkMarkAsRead(ownerEmail, ids, isRead);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Emails updated", null));
+        BulkOperationResultDto result = emailService.bulkMarkAsRead(ownerEmail, ids, isRead);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Emails updated", result));
     }
     
     @PostMapping("/bulk/move")
-    public ResponseEntity<ApiResponse<Void>> bulkMoveToFolder(
+    public ResponseEntity<ApiResponse<BulkOperationResultDto>> bulkMoveToFolder(
             HttpServletRequest request,
             @RequestBody Map<String, Object> payload) {
         
@@ -136,20 +221,46 @@ public class EmailController {
         @SuppressWarnings("unchecked")
         List<String> ids = (List<String>) payload.get("ids");
         String folder = (String) payload.get("folder");
-        emailService.bulkMoveToFolder(ownerEmail, ids, folder);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Emails moved", null));
+        BulkOperationResultDto result = emailService.bulkMoveToFolder(ownerEmail, ids, folder);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Emails moved", result));
+    }
+    
+    @PostMapping("/bulk/labels/add")
+    public ResponseEntity<ApiResponse<BulkOperationResultDto>> bulkAddLabel(
+            HttpServletRequest request,
+            @RequestBody Map<String, Object> payload) {
+        
+        String ownerEmail = extractEmail(request);
+        @SuppressWarnings("unchecked")
+        List<String> ids = (List<String>) payload.get("ids");
+        String label = (String) payload.get("label");
+        BulkOperationResultDto result = emailService.bulkAddLabel(ownerEmail, ids, label);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Label added", result));
+    }
+    
+    @PostMapping("/bulk/labels/remove")
+    public ResponseEntity<ApiResponse<BulkOperationResultDto>> bulkRemoveLabel(
+            HttpServletRequest request,
+            @RequestBody Map<String, Object> payload) {
+        
+        String ownerEmail = extractEmail(request);
+        @SuppressWarnings("unchecked")
+        List<String> ids = (List<String>) payload.get("ids");
+        String label = (String) payload.get("label");
+        BulkOperationResultDto result = emailService.bulkRemoveLabel(ownerEmail, ids, label);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Label removed", result));
     }
     
     @PostMapping("/bulk/delete")
-    public ResponseEntity<ApiResponse<Void>> bulkDelete(
+    public ResponseEntity<ApiResponse<BulkOperationResultDto>> bulkDelete(
             HttpServletRequest request,
             @RequestBody Map<String, Object> payload) {
         
         String ownerEmail = extractEmail(request);
         @SuppressWarnings("unchecked")
         List<String> ids = (List<String>) payload.get("ids");
-        emailService.bulkDelete(ownerEmail, ids);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Emails deleted", null));
+        BulkOperationResultDto result = emailService.bulkDelete(ownerEmail, ids);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Emails deleted", result));
     }
     
     @DeleteMapping("/{id}")
@@ -165,10 +276,12 @@ public class EmailController {
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<EmailDto>>> searchEmails(
             HttpServletRequest request,
-            @RequestParam String q) {
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         
         String ownerEmail = extractEmail(request);
-        List<EmailDto> emails = emailService.getEmails(ownerEmail, null, null, null, q);
+        List<EmailDto> emails = emailService.searchEmails(ownerEmail, q, page, size);
         return ResponseEntity.ok(new ApiResponse<>(true, "OK", emails));
     }
     
@@ -179,6 +292,13 @@ public class EmailController {
         return ResponseEntity.ok(new ApiResponse<>(true, "OK", counts));
     }
     
+    @GetMapping("/counts/folders")
+    public ResponseEntity<ApiResponse<Map<String, EmailFolderCountDto>>> getFolderCounts(HttpServletRequest request) {
+        String ownerEmail = extractEmail(request);
+        Map<String, EmailFolderCountDto> counts = emailService.getFolderCounts(ownerEmail);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", counts));
+    }
+    
     @GetMapping("/debug/all")
     public ResponseEntity<ApiResponse<List<EmailDto>>> getAllEmailsDebug(HttpServletRequest request) {
         String ownerEmail = extractEmail(request);
@@ -0,0 +1,74 @@
+package com.syncora.email.controller;
+
+import com.syncora.common.response.ApiResponse;
+import com.syncora.email.dto.MailboxRuleDto;
+import com.syncora.email.service.MailboxRuleService;
+import com.syncora.security.JwtProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/emails/rules")
+@RequiredArgsConstructor
+public class MailboxRuleController {
+    
+    private final MailboxRuleService mailboxRuleService;
+    private final JwtProvider jwtProvider;
+    
+    private String extractEmail(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            String token = header.substring(7);
+            String email = jwtProvider.extractEmail(token);
+            if (email == null) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+            }
+            return email;
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header");
+    }
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<MailboxRuleDto>>> getRules(HttpServletRequest request) {
+        String ownerEmail = extractEmail(request);
+        return ResponseEntity.ok(new ApiResponse<>(true, "OK", mailboxRuleService.getRules(ownerEmail)));
+    }
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<MailboxRuleDto>> createRule(
+            HttpServletRequest request,
+            @Valid @RequestBody MailboxRuleDto rule) {
+        
+        String ownerEmail = extractEmail(request);
+        MailboxRuleDto created = mailboxRuleService.createRule(ownerEmail, rule);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Rule created", created));
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<MailboxRuleDto>> updateRule(
+            HttpServletRequest request,
+            @PathVariable String id,
+            @Valid @RequestBody MailboxRuleDto rule) {
+        
+        String ownerEmail = extractEmail(request);
+        MailboxRuleDto updated = mailboxRuleService.updateRule(ownerEmail, id, rule);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Rule updated", updated));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteRule(
+            HttpServletRequest request,
+            @PathVariable String id) {
+        
+        String ownerEmail = extractEmail(request);
+        mailboxRuleService.deleteRule(ownerEmail, id);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Rule deleted", null));
+    }
+}
@@ -0,0 +1,21 @@
+package com.syncora.email.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationResultDto {
+    @Builder.Default
+    private List<String> succeeded = new ArrayList<>();
+    // Ids that do not exist or belong to another mailbox
+    @Builder.Default
+    private List<String> notFound = new ArrayList<>();
+}
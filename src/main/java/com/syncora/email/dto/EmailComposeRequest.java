@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -26,4 +27,13 @@ public class EmailComposeRequest {
     
     private String htmlBody;
     private Boolean isDraft;
+    
+    // Id of the email (as listed in the sender's mailbox) this one replies to
+    private String inReplyTo;
+    
+    // When set, the email waits in the Scheduled folder and goes out at this time
+    private LocalDateTime scheduledAt;
+    
+    // Ids returned by POST /api/emails/attachments
+    private List<String> attachmentIds;
 }
@@ -16,6 +16,7 @@ import java.util.Set;
 @Builder
 public class EmailDto {
     private String id;
+    private String threadId;
     private String from;
     private String fromName;
     private List<String> to;
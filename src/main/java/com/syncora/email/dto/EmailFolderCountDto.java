@@ -0,0 +1,15 @@
+package com.syncora.email.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailFolderCountDto {
+    private long unread;
+    private long total;
+}
@@ -0,0 +1,18 @@
+package com.syncora.email.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailPageDto {
+    private List<EmailSummaryDto> items;
+    // Opaque cursor for the next page, null when this is the last page
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.syncora.email.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailSummaryDto {
+    private String id;
+    private String from;
+    private String fromName;
+    private String subject;
+    private String snippet;
+    private Boolean isRead;
+    private Boolean isStarred;
+    private String folder;
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,24 @@
+package com.syncora.email.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailThreadDto {
+    private String threadId;
+    private String subject;
+    private String latestFrom;
+    private String latestFromName;
+    // Mailbox entry id of the newest message, for opening the thread at its latest reply
+    private String latestEmailId;
+    private long messageCount;
+    private long unreadCount;
+    private LocalDateTime latestAt;
+}
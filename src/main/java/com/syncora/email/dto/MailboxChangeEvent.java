@@ -0,0 +1,13 @@
+package com.syncora.email.dto;
+
+import java.util.List;
+
+/**
+ * Realtime mailbox change pushed to {@code /user/queue/email/changes} of the owner, one per bulk batch.
+ *
+ * @param action READ, UNREAD, MOVED, DELETED, LABELED or UNLABELED
+ * @param folder target folder for MOVED, otherwise null
+ * @param label  label for LABELED/UNLABELED, otherwise null
+ */
+public record MailboxChangeEvent(String action, List<String> ids, String folder, String label) {
+}
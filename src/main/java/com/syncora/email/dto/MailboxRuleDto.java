@@ -0,0 +1,32 @@
+package com.syncora.email.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailboxRuleDto {
+    private String id;
+    
+    // from, subject or body
+    @NotNull(message = "Field is required")
+    private String field;
+    
+    @NotBlank(message = "Value is required")
+    private String value;
+    
+    private String targetFolder;
+    private String addLabel;
+    private Boolean markAsRead;
+    private Integer position;
+    private Boolean enabled;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.syncora.email.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Realtime "new mail" event pushed to {@code /user/queue/email} of the recipient after delivery.
+ */
+public record NewEmailNotification(
+        String emailId,
+        String ownerEmail,
+        String folder,
+        String from,
+        String fromName,
+        String subject,
+        LocalDateTime sentAt
+) {
+}
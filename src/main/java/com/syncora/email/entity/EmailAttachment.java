@@ -2,9 +2,22 @@ package com.syncora.email.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDateTime;
+
+/**
+ * File attached to a message. The bytes live in the content-addressed blob store under
+ * {@code contentHash}; identical files share one blob. Uploads have no message until the
+ * email they were uploaded for is sent or saved as a draft. Attachments migrated from the
+ * legacy emails table have no blob and only keep their original external url.
+ */
 @Entity
-@Table(name = "email_attachments")
+@Table(name = "email_attachments", indexes = {
+        @Index(name = "idx_email_attachment_message", columnList = "message_id"),
+        @Index(name = "idx_email_attachment_hash", columnList = "content_hash"),
+        @Index(name = "idx_email_attachment_unattached", columnList = "uploaded_by, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,8 +30,8 @@ public class EmailAttachment {
     private String id;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "email_id", nullable = false)
-    private Email email;
+    @JoinColumn(name = "message_id")
+    private EmailMessage message;
     
     @Column(nullable = false)
     private String filename;
@@ -29,6 +42,17 @@ public class EmailAttachment {
     @Column(name = "mime_type")
     private String mimeType;
     
-    @Column(nullable = false)
-    private String url;
+    // Null only for migrated legacy attachments
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    @Column(name = "url")
+    private String legacyUrl;
+    
+    @Column(name = "uploaded_by", nullable = false)
+    private String uploadedBy;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,122 @@
+package com.syncora.email.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable content of a sent (or drafted) email, stored once no matter how many
+ * mailboxes it lands in. Per-mailbox state lives in {@link MailboxEntry}.
+ */
+@Entity
+@Immutable
+@Table(name = "email_message", indexes = {
+        @Index(name = "idx_email_message_from", columnList = "from_email"),
+        @Index(name = "idx_email_message_thread", columnList = "thread_id"),
+        @Index(name = "idx_email_message_normalized_subject", columnList = "normalized_subject")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailMessage {
+    
+    private static final Pattern REPLY_PREFIX = Pattern.compile("^(?i)(re|fw|fwd|aw|sv|wg)(\\[\\d+])?\\s*:");
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(name = "from_email", nullable = false)
+    private String from;
+    
+    @Column(name = "from_name")
+    private String fromName;
+    
+    // Recipients never change after sending, so they live inline as jsonb instead of three
+    // element-collection tables that each cost a SELECT per message
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "to_recipients", columnDefinition = "jsonb")
+    @Builder.Default
+    private List<String> to = new ArrayList<>();
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "cc_recipients", columnDefinition = "jsonb")
+    @Builder.Default
+    private List<String> cc = new ArrayList<>();
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bcc_recipients", columnDefinition = "jsonb")
+    @Builder.Default
+    private List<String> bcc = new ArrayList<>();
+    
+    @Column(nullable = false)
+    private String subject;
+    
+    // Subject without reply/forward prefixes, used to attach replies that carry no explicit parent
+    @Column(name = "normalized_subject")
+    private String normalizedSubject;
+    
+    @Column(name = "thread_id", length = 36)
+    private String threadId;
+    
+    // Message this one replies to, if any
+    @Column(name = "in_reply_to", length = 36)
+    private String inReplyTo;
+    
+    @Column(columnDefinition = "TEXT")
+    private String body;
+    
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+    
+    @OneToMany(mappedBy = "message", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @Builder.Default
+    private List<EmailAttachment> attachments = new ArrayList<>();
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    void assignThread() {
+        if (normalizedSubject == null) {
+            normalizedSubject = normalizeSubject(subject);
+        }
+        if (threadId == null) {
+            threadId = UUID.randomUUID().toString();
+        }
+    }
+    
+    /**
+     * Lower-cases, collapses whitespace and strips any run of "Re:", "Fwd:" style prefixes,
+     * so "RE: Fwd: Budget  Q3" and "budget q3" normalize the same way.
+     */
+    public static String normalizeSubject(String subject) {
+        if (subject == null) {
+            return "";
+        }
+        String normalized = subject.trim().replaceAll("\\s+", " ");
+        String previous;
+        do {
+            previous = normalized;
+            normalized = REPLY_PREFIX.matcher(normalized).replaceFirst("").trim();
+        } while (!normalized.equals(previous));
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+}
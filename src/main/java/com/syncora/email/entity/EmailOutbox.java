@@ -0,0 +1,74 @@
+package com.syncora.email.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Pending inbox delivery for a sent message. Recipients are removed from
+ * {@link #pendingRecipients} in the same transaction that writes their mailbox entries,
+ * so a retry only ever touches the recipients that have not been delivered yet.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(name = "message_id", nullable = false)
+    private String messageId;
+    
+    @Column(name = "sender_email", nullable = false)
+    private String senderEmail;
+    
+    @ElementCollection
+    @CollectionTable(name = "email_outbox_recipients", joinColumns = @JoinColumn(name = "outbox_id"))
+    @Column(name = "recipient")
+    @Builder.Default
+    private Set<String> pendingRecipients = new HashSet<>();
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    // For PROCESSING rows this is the lease expiry, after which another worker may reclaim it
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum OutboxStatus {
+        PENDING, PROCESSING, DELIVERED, FAILED
+    }
+}
@@ -0,0 +1,64 @@
+package com.syncora.email.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of a delayed mailbox action. The table is the source of truth; jobs due soon
+ * are mirrored into an in-memory timing wheel that fires them.
+ */
+@Entity
+@Table(name = "email_scheduled_job", indexes = {
+        @Index(name = "idx_email_job_status_due", columnList = "status, due_at"),
+        @Index(name = "idx_email_job_entry", columnList = "entry_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailScheduledJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobType type;
+    
+    @Column(name = "owner_email", nullable = false)
+    private String ownerEmail;
+    
+    // SEND: the sender's SCHEDULED entry; UNSNOOZE: the SNOOZED entry
+    @Column(name = "entry_id", nullable = false)
+    private String entryId;
+    
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private JobStatus status = JobStatus.PENDING;
+    
+    // Failed runs so far; the job is marked FAILED once email.schedule.max-attempts is reached
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int attempts = 0;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    public enum JobType {
+        SEND, UNSNOOZE
+    }
+    
+    public enum JobStatus {
+        PENDING, DONE, CANCELLED, FAILED
+    }
+}
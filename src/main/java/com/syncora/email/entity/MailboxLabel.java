@@ -0,0 +1,39 @@
+package com.syncora.email.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One label on one mailbox entry. Owner and sent_at are copied from the entry so a label
+ * view is a single range scan on (owner_email, label, sent_at).
+ */
+@Entity
+@Table(name = "mailbox_label",
+        uniqueConstraints = @UniqueConstraint(name = "uk_mailbox_label_entry_label", columnNames = {"entry_id", "label"}),
+        indexes = @Index(name = "idx_mailbox_label_owner_label_sent", columnList = "owner_email, label, sent_at, entry_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailboxLabel {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "entry_id", nullable = false)
+    private MailboxEntry entry;
+    
+    @Column(name = "owner_email", nullable = false)
+    private String ownerEmail;
+    
+    @Column(nullable = false, length = 100)
+    private String label;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,73 @@
+package com.syncora.email.entity;
+
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A server-side inbox rule: when {@link #field} matches {@link #value}, apply the actions to
+ * the incoming mailbox entry. FROM matches the sender address exactly; SUBJECT and BODY match
+ * when the text contains the value. Matching is case-insensitive.
+ */
+@Entity
+@Table(name = "mailbox_rule", indexes = {
+        @Index(name = "idx_mailbox_rule_owner", columnList = "owner_email, position")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailboxRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    
+    @Column(name = "owner_email", nullable = false)
+    private String ownerEmail;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RuleField field;
+    
+    @Column(name = "match_value", nullable = false)
+    private String value;
+    
+    // Actions; a null action is left untouched
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_folder")
+    private EmailFolder targetFolder;
+    
+    @Column(name = "add_label")
+    private String addLabel;
+    
+    @Column(name = "mark_as_read", nullable = false)
+    @Builder.Default
+    private Boolean markAsRead = false;
+    
+    // Lower runs first; the first matching rule with a target folder decides the folder
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer position = 0;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean enabled = true;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum RuleField {
+        FROM, SUBJECT, BODY
+    }
+}
@@ -2,8 +2,13 @@ package com.syncora.email.mapper;
 
 import com.syncora.email.dto.EmailAttachmentDto;
 import com.syncora.email.dto.EmailDto;
-import com.syncora.email.entity.Email;
+import com.syncora.email.dto.EmailSummaryDto;
+import com.syncora.email.dto.EmailThreadDto;
 import com.syncora.email.entity.EmailAttachment;
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.repository.EmailThreadSummary;
+import com.syncora.email.repository.MailboxEntrySummary;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -13,32 +18,69 @@ import java.util.stream.Collectors;
 @Component
 public class EmailMapper {
     
-    public EmailDto toDto(Email email) {
-        if (email == null) {
+    public EmailDto toDto(MailboxEntry entry) {
+        if (entry == null) {
             return null;
         }
         
+        EmailMessage message = entry.getMessage();
         return EmailDto.builder()
-                .id(email.getId())
-                .from(email.getFrom())
-                .fromName(email.getFromName())
-                .to(email.getTo())
-                .cc(email.getCc())
-                .bcc(email.getBcc())
-                .subject(email.getSubject())
-                .body(email.getBody())
-                .htmlBody(email.getHtmlBody())
-                .isRead(email.getIsRead())
-                .isStarred(email.getIsStarred())
-                .folder(email.getFolder().name().toLowerCase())
-                .labels(email.getLabels())
-                .attachments(email.getAttachments() != null ? 
-                        email.getAttachments().stream()
+                .id(entry.getId())
+                .threadId(entry.getThreadId())
+                .from(message.getFrom())
+                .fromName(message.getFromName())
+                .to(message.getTo())
+                .cc(message.getCc())
+                .bcc(message.getBcc())
+                .subject(message.getSubject())
+                .body(message.getBody())
+                .htmlBody(message.getHtmlBody())
+                .isRead(entry.getIsRead())
+                .isStarred(entry.getIsStarred())
+                .folder(entry.getFolder().name().toLowerCase())
+                .labels(entry.getLabelNames())
+                .attachments(message.getAttachments() != null ? 
+                        message.getAttachments().stream()
                                 .map(this::toAttachmentDto)
                                 .collect(Collectors.toList()) : null)
-                .sentAt(email.getSentAt())
-                .createdAt(email.getCreatedAt())
-                .updatedAt(email.getUpdatedAt())
+                .sentAt(entry.getSentAt())
+                .createdAt(entry.getCreatedAt())
+                .updatedAt(entry.getUpdatedAt())
+                .build();
+    }
+    
+    public EmailSummaryDto toSummaryDto(MailboxEntrySummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        
+        return EmailSummaryDto.builder()
+                .id(summary.getId())
+                .from(summary.getFrom())
+                .fromName(summary.getFromName())
+                .subject(summary.getSubject())
+                .snippet(summary.getSnippet())
+                .isRead(summary.getIsRead())
+                .isStarred(summary.getIsStarred())
+                .folder(summary.getFolder().name().toLowerCase())
+                .sentAt(summary.getSentAt())
+                .build();
+    }
+    
+    public EmailThreadDto toThreadDto(EmailThreadSummary thread) {
+        if (thread == null) {
+            return null;
+        }
+        
+        return EmailThreadDto.builder()
+                .threadId(thread.getThreadId())
+                .subject(thread.getSubject())
+                .latestFrom(thread.getLatestFrom())
+                .latestFromName(thread.getLatestFromName())
+                .latestEmailId(thread.getLatestEntryId())
+                .messageCount(thread.getMessageCount() != null ? thread.getMessageCount() : 0)
+                .unreadCount(thread.getUnreadCount() != null ? thread.getUnreadCount() : 0)
+                .latestAt(thread.getLatestAt())
                 .build();
     }
     
@@ -52,7 +94,9 @@ public class EmailMapper {
                 .filename(attachment.getFilename())
                 .size(attachment.getSize())
                 .mimeType(attachment.getMimeType())
-                .url(attachment.getUrl())
+                .url(attachment.getContentHash() == null && attachment.getLegacyUrl() != null
+                        ? attachment.getLegacyUrl()
+                        : "/api/emails/attachments/" + attachment.getId())
                 .build();
     }
 }
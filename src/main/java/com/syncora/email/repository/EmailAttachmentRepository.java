@@ -0,0 +1,31 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.EmailAttachment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailAttachmentRepository extends JpaRepository<EmailAttachment, String> {
+    
+    // 1️⃣ Uploads the sender may attach: their own and not yet part of a message
+    List<EmailAttachment> findByIdInAndUploadedByAndMessageIsNull(Collection<String> ids, String uploadedBy);
+    
+    // 2️⃣ Blobs behind messages about to be deleted
+    @Query("SELECT DISTINCT a.contentHash FROM EmailAttachment a WHERE a.message.id IN :messageIds AND a.contentHash IS NOT NULL")
+    List<String> findContentHashesByMessageIdIn(@Param("messageIds") Collection<String> messageIds);
+    
+    // 3️⃣ Which of these blobs are still referenced
+    @Query("SELECT DISTINCT a.contentHash FROM EmailAttachment a WHERE a.contentHash IN :hashes")
+    List<String> findReferencedHashes(@Param("hashes") Collection<String> hashes);
+    
+    // 4️⃣ Uploads that never made it into an email
+    @Query("SELECT a FROM EmailAttachment a WHERE a.message IS NULL AND a.createdAt < :cutoff ORDER BY a.createdAt")
+    List<EmailAttachment> findUnattachedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.EmailOutbox.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailMessageRepository extends JpaRepository<EmailMessage, String> {
+    
+    // Messages no mailbox entry or in-flight delivery references any more
+    @Query("SELECT m.id FROM EmailMessage m WHERE m.id IN :ids " +
+           "AND NOT EXISTS (SELECT 1 FROM MailboxEntry e WHERE e.message = m) " +
+           "AND NOT EXISTS (SELECT 1 FROM EmailOutbox o WHERE o.messageId = m.id AND o.status IN :activeStatuses)")
+    List<String> findUnreferencedIds(@Param("ids") Collection<String> ids,
+                                     @Param("activeStatuses") Collection<OutboxStatus> activeStatuses);
+    
+    // Bulk JPQL deletes skip cascades, so attachment rows are removed first
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM EmailAttachment a WHERE a.message.id IN :ids")
+    int deleteAttachmentsByMessageIdIn(@Param("ids") Collection<String> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM EmailMessage m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,47 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.EmailOutbox;
+import com.syncora.email.entity.EmailOutbox.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, String> {
+    
+    // 1️⃣ Deliveries ready to run: pending retries plus PROCESSING rows whose lease ran out
+    @Query("SELECT o.id FROM EmailOutbox o WHERE o.status IN :statuses AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<String> findDueIds(@Param("statuses") Collection<OutboxStatus> statuses,
+                            @Param("now") LocalDateTime now,
+                            Pageable pageable);
+    
+    // 2️⃣ Conditional claim so only one worker processes a delivery at a time
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :processing, o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id = :id AND o.status IN :claimable AND o.nextAttemptAt <= :now")
+    int claim(@Param("id") String id,
+              @Param("processing") OutboxStatus processing,
+              @Param("claimable") Collection<OutboxStatus> claimable,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    // 3️⃣ Row lock taken by each delivery batch, so two workers holding the same delivery never write the same recipient twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM EmailOutbox o WHERE o.id = :id")
+    Optional<EmailOutbox> findByIdForUpdate(@Param("id") String id);
+    
+    // 4️⃣ Keeps shared message content alive while deliveries still reference it
+    boolean existsByMessageIdAndStatusIn(String messageId, Collection<OutboxStatus> statuses);
+}
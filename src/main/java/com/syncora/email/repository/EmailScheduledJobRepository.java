@@ -0,0 +1,45 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.EmailScheduledJob;
+import com.syncora.email.entity.EmailScheduledJob.JobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailScheduledJobRepository extends JpaRepository<EmailScheduledJob, String> {
+    
+    // 1️⃣ Window load for the timing wheel, oldest first
+    @Query("SELECT j FROM EmailScheduledJob j WHERE j.status = :status AND j.dueAt < :until ORDER BY j.dueAt")
+    List<EmailScheduledJob> findDueBefore(@Param("status") JobStatus status,
+                                          @Param("until") LocalDateTime until,
+                                          Pageable pageable);
+    
+    // 2️⃣ Conditional transition so a job runs (or is cancelled) exactly once across instances
+    @Modifying
+    @Query("UPDATE EmailScheduledJob j SET j.status = :to WHERE j.id = :id AND j.status = :from")
+    int transition(@Param("id") String id, @Param("from") JobStatus from, @Param("to") JobStatus to);
+    
+    // 3️⃣ Cancels every pending job of entries that left Scheduled/Snoozed or were deleted
+    @Modifying
+    @Query("UPDATE EmailScheduledJob j SET j.status = :to WHERE j.entryId IN :entryIds AND j.status = :from")
+    int transitionForEntries(@Param("entryIds") Collection<String> entryIds,
+                             @Param("from") JobStatus from, @Param("to") JobStatus to);
+    
+    // 4️⃣ Failed run: count the attempt and give up once the cap is reached
+    @Modifying
+    @Query("UPDATE EmailScheduledJob j SET j.attempts = j.attempts + 1 WHERE j.id = :id AND j.status = :status")
+    int incrementAttempts(@Param("id") String id, @Param("status") JobStatus status);
+    
+    @Modifying
+    @Query("UPDATE EmailScheduledJob j SET j.status = :to WHERE j.id = :id AND j.status = :from AND j.attempts >= :maxAttempts")
+    int transitionIfExhausted(@Param("id") String id, @Param("maxAttempts") int maxAttempts,
+                              @Param("from") JobStatus from, @Param("to") JobStatus to);
+}
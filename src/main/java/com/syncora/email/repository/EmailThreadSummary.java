@@ -0,0 +1,17 @@
+package com.syncora.email.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One conversation in a mailbox: counts plus the subject and sender of its latest message.
+ */
+public interface EmailThreadSummary {
+    String getThreadId();
+    String getSubject();
+    String getLatestFrom();
+    String getLatestFromName();
+    String getLatestEntryId();
+    Long getMessageCount();
+    Long getUnreadCount();
+    LocalDateTime getLatestAt();
+}
@@ -0,0 +1,12 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+
+/**
+ * Per-folder totals for one mailbox, produced by a single grouped query.
+ */
+public interface FolderCount {
+    EmailFolder getFolder();
+    Long getTotal();
+    Long getUnread();
+}
@@ -0,0 +1,10 @@
+package com.syncora.email.repository;
+
+/**
+ * Entries carrying one label in a mailbox.
+ */
+public interface LabelCount {
+    String getLabel();
+    Long getTotal();
+    Long getUnread();
+}
@@ -0,0 +1,144 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailboxEntryRepository extends JpaRepository<MailboxEntry, String> {
+    
+    @EntityGraph(attributePaths = "message")
+    List<MailboxEntry> findByOwnerEmailOrderBySentAtDesc(String ownerEmail);
+    
+    @EntityGraph(attributePaths = "message")
+    List<MailboxEntry> findByOwnerEmailAndFolderOrderBySentAtDesc(String ownerEmail, EmailFolder folder);
+    
+    @EntityGraph(attributePaths = "message")
+    List<MailboxEntry> findByOwnerEmailAndIsStarredOrderBySentAtDesc(String ownerEmail, Boolean isStarred);
+    
+    @EntityGraph(attributePaths = "message")
+    List<MailboxEntry> findByOwnerEmailAndIsReadOrderBySentAtDesc(String ownerEmail, Boolean isRead);
+    
+    // Ranked full-text search over the GIN-indexed email_message.search_vector (see db/email-search.sql)
+    @Query(value = "SELECT e.id FROM mailbox_entry e JOIN email_message m ON m.id = e.message_id " +
+           "WHERE e.owner_email = :ownerEmail " +
+           "AND (:tsQuery = '' OR m.search_vector @@ to_tsquery('english', :tsQuery)) " +
+           "AND (:fromPattern = '' OR m.from_email ILIKE :fromPattern OR m.from_name ILIKE :fromPattern) " +
+           "AND (:hasAttachment = false OR EXISTS (SELECT 1 FROM email_attachments a WHERE a.message_id = m.id)) " +
+           "ORDER BY CASE WHEN :tsQuery = '' THEN 0 " +
+           "ELSE ts_rank(m.search_vector, to_tsquery('english', :tsQuery)) END DESC, e.sent_at DESC, e.id",
+           nativeQuery = true)
+    List<String> searchIds(@Param("ownerEmail") String ownerEmail,
+                           @Param("tsQuery") String tsQuery,
+                           @Param("fromPattern") String fromPattern,
+                           @Param("hasAttachment") boolean hasAttachment,
+                           Pageable pageable);
+    
+    @EntityGraph(attributePaths = "message")
+    List<MailboxEntry> findByIdIn(Collection<String> ids);
+    
+    // Keyset pagination on (owner_email, folder, sent_at, id): first page, then pages after a cursor
+    @Query("SELECT e.id AS id, m.from AS from, m.fromName AS fromName, m.subject AS subject, " +
+           "SUBSTRING(m.body, 1, 200) AS snippet, e.isRead AS isRead, e.isStarred AS isStarred, " +
+           "e.folder AS folder, e.sentAt AS sentAt " +
+           "FROM MailboxEntry e JOIN e.message m " +
+           "WHERE e.ownerEmail = :ownerEmail AND e.folder = :folder " +
+           "ORDER BY e.sentAt DESC, e.id DESC")
+    List<MailboxEntrySummary> findSummaries(@Param("ownerEmail") String ownerEmail,
+                                            @Param("folder") EmailFolder folder,
+                                            Pageable pageable);
+    
+    @Query("SELECT e.id AS id, m.from AS from, m.fromName AS fromName, m.subject AS subject, " +
+           "SUBSTRING(m.body, 1, 200) AS snippet, e.isRead AS isRead, e.isStarred AS isStarred, " +
+           "e.folder AS folder, e.sentAt AS sentAt " +
+           "FROM MailboxEntry e JOIN e.message m " +
+           "WHERE e.ownerEmail = :ownerEmail AND e.folder = :folder " +
+           "AND (e.sentAt < :sentAt OR (e.sentAt = :sentAt AND e.id < :id)) " +
+           "ORDER BY e.sentAt DESC, e.id DESC")
+    List<MailboxEntrySummary> findSummariesAfter(@Param("ownerEmail") String ownerEmail,
+                                                 @Param("folder") EmailFolder folder,
+                                                 @Param("sentAt") LocalDateTime sentAt,
+                                                 @Param("id") String id,
+                                                 Pageable pageable);
+    
+    @Query("SELECT e.folder AS folder, COUNT(e) AS total, " +
+           "SUM(CASE WHEN e.isRead = false THEN 1L ELSE 0L END) AS unread " +
+           "FROM MailboxEntry e WHERE e.ownerEmail = :ownerEmail GROUP BY e.folder")
+    List<FolderCount> countByFolder(@Param("ownerEmail") String ownerEmail);
+    
+    Long countByOwnerEmailAndFolder(String ownerEmail, EmailFolder folder);
+    
+    // Bulk operations: resolve owned ids once per chunk, then one set-based statement
+    @Query("SELECT e.id AS id, e.folder AS folder, e.isRead AS isRead, e.message.id AS messageId " +
+           "FROM MailboxEntry e WHERE e.ownerEmail = :ownerEmail AND e.id IN :ids")
+    List<MailboxEntryState> findStates(@Param("ownerEmail") String ownerEmail, @Param("ids") Collection<String> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MailboxEntry e SET e.isRead = :isRead, e.updatedAt = :now " +
+           "WHERE e.ownerEmail = :ownerEmail AND e.id IN :ids")
+    int updateReadState(@Param("ownerEmail") String ownerEmail, @Param("ids") Collection<String> ids,
+                        @Param("isRead") Boolean isRead, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MailboxEntry e SET e.folder = :folder, e.updatedAt = :now " +
+           "WHERE e.ownerEmail = :ownerEmail AND e.id IN :ids")
+    int updateFolder(@Param("ownerEmail") String ownerEmail, @Param("ids") Collection<String> ids,
+                     @Param("folder") EmailFolder folder, @Param("now") LocalDateTime now);
+    
+    // Bulk JPQL deletes skip cascades, so labels are removed first
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MailboxLabel l WHERE l.entry.id IN :ids")
+    int deleteLabelsByEntryIdIn(@Param("ids") Collection<String> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM MailboxEntry e WHERE e.ownerEmail = :ownerEmail AND e.id IN :ids")
+    int deleteByOwnerEmailAndIdIn(@Param("ownerEmail") String ownerEmail, @Param("ids") Collection<String> ids);
+    
+    // Threads: one grouped pass over the owner's entries, newest activity first.
+    // Trash and spam are left out unless a folder is requested explicitly.
+    @Query(value = "SELECT t.thread_id AS threadId, m.subject AS subject, m.from_email AS latestFrom, " +
+           "m.from_name AS latestFromName, t.latest_entry_id AS latestEntryId, t.message_count AS messageCount, " +
+           "t.unread_count AS unreadCount, t.latest_at AS latestAt " +
+           "FROM (SELECT e.thread_id, COUNT(*) AS message_count, " +
+           "COUNT(*) FILTER (WHERE NOT e.is_read) AS unread_count, MAX(e.sent_at) AS latest_at, " +
+           "(ARRAY_AGG(e.id ORDER BY e.sent_at DESC, e.id DESC))[1] AS latest_entry_id " +
+           "FROM mailbox_entry e WHERE e.owner_email = :ownerEmail AND e.thread_id IS NOT NULL " +
+           "AND ((:folder = '' AND e.folder NOT IN ('TRASH', 'SPAM')) OR e.folder = :folder) " +
+           "GROUP BY e.thread_id) t " +
+           "JOIN mailbox_entry le ON le.id = t.latest_entry_id " +
+           "JOIN email_message m ON m.id = le.message_id " +
+           "ORDER BY t.latest_at DESC, t.thread_id DESC",
+           nativeQuery = true)
+    List<EmailThreadSummary> findThreads(@Param("ownerEmail") String ownerEmail,
+                                         @Param("folder") String folder,
+                                         Pageable pageable);
+    
+    @EntityGraph(attributePaths = "message")
+    List<MailboxEntry> findByOwnerEmailAndThreadIdOrderBySentAtAsc(String ownerEmail, String threadId);
+    
+    // Fallback threading for "Re:" subjects sent without an explicit parent
+    @Query("SELECT e.threadId FROM MailboxEntry e JOIN e.message m " +
+           "WHERE e.ownerEmail = :ownerEmail AND m.normalizedSubject = :normalizedSubject " +
+           "AND e.threadId IS NOT NULL ORDER BY e.sentAt DESC")
+    List<String> findLatestThreadIdBySubject(@Param("ownerEmail") String ownerEmail,
+                                             @Param("normalizedSubject") String normalizedSubject,
+                                             Pageable pageable);
+    
+    // Used to drop a message once the last mailbox referencing it is gone
+    boolean existsByMessage_Id(String messageId);
+    
+    boolean existsByOwnerEmailAndMessage_Id(String ownerEmail, String messageId);
+    
+    // Index-backed probe (owner_email leads idx_mailbox_owner_folder_sent_id), unlike count()
+    boolean existsByOwnerEmail(String ownerEmail);
+}
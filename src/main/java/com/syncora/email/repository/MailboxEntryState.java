@@ -0,0 +1,13 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+
+/**
+ * The columns bulk operations need to compute counter deltas and per-id results.
+ */
+public interface MailboxEntryState {
+    String getId();
+    EmailFolder getFolder();
+    Boolean getIsRead();
+    String getMessageId();
+}
@@ -0,0 +1,20 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view columns for one mailbox entry; the body is cut down to a snippet in SQL.
+ */
+public interface MailboxEntrySummary {
+    String getId();
+    String getFrom();
+    String getFromName();
+    String getSubject();
+    String getSnippet();
+    Boolean getIsRead();
+    Boolean getIsStarred();
+    EmailFolder getFolder();
+    LocalDateTime getSentAt();
+}
@@ -0,0 +1,64 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.MailboxLabel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailboxLabelRepository extends JpaRepository<MailboxLabel, String> {
+    
+    // 1️⃣ Label view, keyset-paginated on (owner_email, label, sent_at, entry_id)
+    @Query("SELECT e.id AS id, m.from AS from, m.fromName AS fromName, m.subject AS subject, " +
+           "SUBSTRING(m.body, 1, 200) AS snippet, e.isRead AS isRead, e.isStarred AS isStarred, " +
+           "e.folder AS folder, e.sentAt AS sentAt " +
+           "FROM MailboxLabel l JOIN l.entry e JOIN e.message m " +
+           "WHERE l.ownerEmail = :ownerEmail AND l.label = :label " +
+           "ORDER BY l.sentAt DESC, e.id DESC")
+    List<MailboxEntrySummary> findSummaries(@Param("ownerEmail") String ownerEmail,
+                                            @Param("label") String label,
+                                            Pageable pageable);
+    
+    @Query("SELECT e.id AS id, m.from AS from, m.fromName AS fromName, m.subject AS subject, " +
+           "SUBSTRING(m.body, 1, 200) AS snippet, e.isRead AS isRead, e.isStarred AS isStarred, " +
+           "e.folder AS folder, e.sentAt AS sentAt " +
+           "FROM MailboxLabel l JOIN l.entry e JOIN e.message m " +
+           "WHERE l.ownerEmail = :ownerEmail AND l.label = :label " +
+           "AND (l.sentAt < :sentAt OR (l.sentAt = :sentAt AND e.id < :id)) " +
+           "ORDER BY l.sentAt DESC, e.id DESC")
+    List<MailboxEntrySummary> findSummariesAfter(@Param("ownerEmail") String ownerEmail,
+                                                 @Param("label") String label,
+                                                 @Param("sentAt") LocalDateTime sentAt,
+                                                 @Param("id") String id,
+                                                 Pageable pageable);
+    
+    // 2️⃣ Per-label totals for the sidebar
+    @Query("SELECT l.label AS label, COUNT(l) AS total, " +
+           "SUM(CASE WHEN e.isRead = false THEN 1L ELSE 0L END) AS unread " +
+           "FROM MailboxLabel l JOIN l.entry e WHERE l.ownerEmail = :ownerEmail " +
+           "GROUP BY l.label ORDER BY l.label")
+    List<LabelCount> countByLabel(@Param("ownerEmail") String ownerEmail);
+    
+    // 3️⃣ Bulk add/remove touch only label rows, never the entries' whole label sets
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO mailbox_label (id, entry_id, owner_email, label, sent_at) " +
+           "SELECT CAST(gen_random_uuid() AS varchar), e.id, e.owner_email, :label, e.sent_at " +
+           "FROM mailbox_entry e WHERE e.owner_email = :ownerEmail AND e.id IN (:ids) " +
+           "ON CONFLICT (entry_id, label) DO NOTHING", nativeQuery = true)
+    int addLabel(@Param("ownerEmail") String ownerEmail,
+                 @Param("ids") Collection<String> ids,
+                 @Param("label") String label);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM MailboxLabel l WHERE l.ownerEmail = :ownerEmail AND l.label = :label AND l.entry.id IN :ids")
+    int removeLabel(@Param("ownerEmail") String ownerEmail,
+                    @Param("ids") Collection<String> ids,
+                    @Param("label") String label);
+}
@@ -0,0 +1,20 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.MailboxRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MailboxRuleRepository extends JpaRepository<MailboxRule, String> {
+    
+    List<MailboxRule> findByOwnerEmailOrderByPositionAscCreatedAtAsc(String ownerEmail);
+    
+    Optional<MailboxRule> findByIdAndOwnerEmail(String id, String ownerEmail);
+    
+    // One query compiles the rules for a whole delivery batch
+    List<MailboxRule> findByOwnerEmailInAndEnabledTrueOrderByPositionAscCreatedAtAsc(Collection<String> ownerEmails);
+}
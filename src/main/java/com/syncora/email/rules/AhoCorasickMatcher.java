@@ -0,0 +1,100 @@
+package com.syncora.email.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case-insensitive multi-keyword matcher. All keywords are found in one pass over the text,
+ * so the cost of a scan depends on the text length and not on how many keywords are loaded.
+ * Immutable once built and safe to share between threads.
+ */
+final class AhoCorasickMatcher {
+    
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<int[]> outputs = new ArrayList<>();
+    private final int[] failure;
+    
+    /**
+     * @param keywords keyword at index {@code i} reports {@code ids[i]} when found
+     */
+    AhoCorasickMatcher(List<String> keywords, List<Integer> ids) {
+        newNode();
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k).toLowerCase(Locale.ROOT);
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer next = transitions.get(node).get(c);
+                if (next == null) {
+                    next = newNode();
+                    transitions.get(node).put(c, next);
+                }
+                node = next;
+            }
+            outputs.set(node, append(outputs.get(node), ids.get(k)));
+        }
+        
+        // Breadth-first failure links; each node also inherits the outputs of its failure node
+        failure = new int[transitions.size()];
+        List<Integer> queue = new ArrayList<>(transitions.get(0).values());
+        for (int head = 0; head < queue.size(); head++) {
+            int node = queue.get(head);
+            for (Map.Entry<Character, Integer> edge : transitions.get(node).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[node];
+                while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure[fallback];
+                }
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                failure[child] = target != null && target != child ? target : 0;
+                for (int id : outputs.get(failure[child])) {
+                    outputs.set(child, append(outputs.get(child), id));
+                }
+                queue.add(child);
+            }
+        }
+    }
+    
+    boolean isEmpty() {
+        return transitions.size() == 1;
+    }
+    
+    /** Sets the id bit of every keyword that occurs in {@code text}. */
+    void match(String text, BitSet matched) {
+        if (text == null || isEmpty()) {
+            return;
+        }
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (node != 0 && !transitions.get(node).containsKey(c)) {
+                node = failure[node];
+            }
+            Integer next = transitions.get(node).get(c);
+            node = next != null ? next : 0;
+            for (int id : outputs.get(node)) {
+                matched.set(id);
+            }
+        }
+    }
+    
+    private int newNode() {
+        transitions.add(new HashMap<>());
+        outputs.add(new int[0]);
+        return transitions.size() - 1;
+    }
+    
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+}
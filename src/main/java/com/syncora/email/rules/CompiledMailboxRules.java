@@ -0,0 +1,105 @@
+package com.syncora.email.rules;
+
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import com.syncora.email.entity.MailboxRule;
+
+import java.util.*;
+
+/**
+ * One user's enabled rules compiled for delivery: an exact-match map for sender rules and one
+ * Aho-Corasick automaton each for subject and body keywords. Evaluating a message is a map
+ * lookup plus one scan per text field, however many rules the user has.
+ */
+public final class CompiledMailboxRules {
+    
+    public static final CompiledMailboxRules EMPTY = new CompiledMailboxRules(List.of());
+    
+    // Rule actions indexed by position in the original (ordered) rule list
+    private final EmailFolder[] folders;
+    private final String[] labels;
+    private final boolean[] markAsRead;
+    private final Map<String, int[]> senderRules = new HashMap<>();
+    private final AhoCorasickMatcher subjectMatcher;
+    private final AhoCorasickMatcher bodyMatcher;
+    
+    public CompiledMailboxRules(List<MailboxRule> orderedRules) {
+        int size = orderedRules.size();
+        folders = new EmailFolder[size];
+        labels = new String[size];
+        markAsRead = new boolean[size];
+        
+        List<String> subjectKeywords = new ArrayList<>();
+        List<Integer> subjectIds = new ArrayList<>();
+        List<String> bodyKeywords = new ArrayList<>();
+        List<Integer> bodyIds = new ArrayList<>();
+        Map<String, List<Integer>> senders = new HashMap<>();
+        
+        for (int i = 0; i < size; i++) {
+            MailboxRule rule = orderedRules.get(i);
+            folders[i] = rule.getTargetFolder();
+            labels[i] = rule.getAddLabel() != null && !rule.getAddLabel().isBlank() ? rule.getAddLabel().trim() : null;
+            markAsRead[i] = Boolean.TRUE.equals(rule.getMarkAsRead());
+            
+            String value = rule.getValue() == null ? "" : rule.getValue().trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (rule.getField()) {
+                case FROM -> senders.computeIfAbsent(value.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(i);
+                case SUBJECT -> {
+                    subjectKeywords.add(value);
+                    subjectIds.add(i);
+                }
+                case BODY -> {
+                    bodyKeywords.add(value);
+                    bodyIds.add(i);
+                }
+            }
+        }
+        
+        senders.forEach((sender, ids) -> senderRules.put(sender, ids.stream().mapToInt(Integer::intValue).toArray()));
+        subjectMatcher = new AhoCorasickMatcher(subjectKeywords, subjectIds);
+        bodyMatcher = new AhoCorasickMatcher(bodyKeywords, bodyIds);
+    }
+    
+    public boolean isEmpty() {
+        return folders.length == 0;
+    }
+    
+    public RuleOutcome evaluate(EmailMessage message) {
+        if (isEmpty()) {
+            return RuleOutcome.NONE;
+        }
+        
+        BitSet matched = new BitSet(folders.length);
+        if (message.getFrom() != null) {
+            int[] ids = senderRules.get(message.getFrom().toLowerCase(Locale.ROOT));
+            if (ids != null) {
+                for (int id : ids) {
+                    matched.set(id);
+                }
+            }
+        }
+        subjectMatcher.match(message.getSubject(), matched);
+        bodyMatcher.match(message.getBody(), matched);
+        if (matched.isEmpty()) {
+            return RuleOutcome.NONE;
+        }
+        
+        // Walk matches in rule order: first folder wins, labels accumulate, any rule can mark read
+        EmailFolder folder = null;
+        Set<String> addLabels = new LinkedHashSet<>();
+        boolean read = false;
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            if (folder == null) {
+                folder = folders[i];
+            }
+            if (labels[i] != null) {
+                addLabels.add(labels[i]);
+            }
+            read |= markAsRead[i];
+        }
+        return new RuleOutcome(folder, addLabels, read);
+    }
+}
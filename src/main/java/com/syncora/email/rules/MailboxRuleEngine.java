@@ -0,0 +1,97 @@
+package com.syncora.email.rules;
+
+import com.syncora.email.entity.MailboxRule;
+import com.syncora.email.repository.MailboxRuleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Caches each user's compiled rules. Delivery asks for a whole recipient batch at once, so
+ * cache misses cost a single query; rule edits invalidate the owner's entry.
+ * <p>
+ * Every invalidation bumps a generation counter. A load remembers the generation it started at
+ * and its result is only cached for owners not invalidated since, so a delivery that read the
+ * rules just before an edit committed cannot put the old rules back.
+ */
+@Component
+public class MailboxRuleEngine {
+    
+    private final MailboxRuleRepository mailboxRuleRepository;
+    private final int cacheSize;
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, CompiledMailboxRules> cache;
+    // Generation of each owner's latest invalidation; older ones are folded into a floor
+    private final LinkedHashMap<String, Long> invalidations = new LinkedHashMap<>();
+    private long generation;
+    private long invalidationFloor;
+    
+    public MailboxRuleEngine(MailboxRuleRepository mailboxRuleRepository,
+                             @Value("${email.rules.cache-size:10000}") int cacheSize) {
+        this.mailboxRuleRepository = mailboxRuleRepository;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledMailboxRules> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    public Map<String, CompiledMailboxRules> rulesFor(Collection<String> ownerEmails) {
+        Map<String, CompiledMailboxRules> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (lock) {
+            for (String owner : ownerEmails) {
+                CompiledMailboxRules compiled = cache.get(owner);
+                if (compiled != null) {
+                    result.put(owner, compiled);
+                } else {
+                    missing.add(owner);
+                }
+            }
+            loadGeneration = generation;
+        }
+        
+        if (!missing.isEmpty()) {
+            Map<String, List<MailboxRule>> byOwner = mailboxRuleRepository
+                    .findByOwnerEmailInAndEnabledTrueOrderByPositionAscCreatedAtAsc(missing).stream()
+                    .collect(Collectors.groupingBy(MailboxRule::getOwnerEmail, LinkedHashMap::new, Collectors.toList()));
+            synchronized (lock) {
+                for (String owner : missing) {
+                    List<MailboxRule> rules = byOwner.get(owner);
+                    CompiledMailboxRules compiled = rules == null ? CompiledMailboxRules.EMPTY : new CompiledMailboxRules(rules);
+                    if (!invalidatedSince(owner, loadGeneration)) {
+                        cache.put(owner, compiled);
+                    }
+                    result.put(owner, compiled);
+                }
+            }
+        }
+        return result;
+    }
+    
+    public void invalidate(String ownerEmail) {
+        synchronized (lock) {
+            cache.remove(ownerEmail);
+            invalidations.remove(ownerEmail);
+            invalidations.put(ownerEmail, ++generation);
+            if (invalidations.size() > cacheSize) {
+                Iterator<Map.Entry<String, Long>> oldest = invalidations.entrySet().iterator();
+                invalidationFloor = oldest.next().getValue();
+                oldest.remove();
+            }
+        }
+    }
+    
+    private boolean invalidatedSince(String ownerEmail, long loadGeneration) {
+        if (loadGeneration < invalidationFloor) {
+            return true;
+        }
+        Long invalidatedAt = invalidations.get(ownerEmail);
+        return invalidatedAt != null && invalidatedAt > loadGeneration;
+    }
+}
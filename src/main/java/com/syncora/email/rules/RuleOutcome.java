@@ -0,0 +1,17 @@
+package com.syncora.email.rules;
+
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+
+import java.util.Set;
+
+/**
+ * What the matching rules decided for one incoming email.
+ *
+ * @param folder     target folder, or null to keep the default (INBOX)
+ * @param labels     labels to add
+ * @param markAsRead deliver as already read
+ */
+public record RuleOutcome(EmailFolder folder, Set<String> labels, boolean markAsRead) {
+    
+    public static final RuleOutcome NONE = new RuleOutcome(null, Set.of(), false);
+}
@@ -0,0 +1,144 @@
+package com.syncora.email.schedule;
+
+import com.syncora.email.entity.EmailScheduledJob;
+import com.syncora.email.service.EmailJobScheduledEvent;
+import com.syncora.email.service.EmailScheduleService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Fires scheduled sends and snoozes within one tick of their due time. Only jobs due inside
+ * the look-ahead window are held in the {@link HierarchicalTimingWheel}; the table is read once
+ * per load interval to pull the next window in, and new jobs inside the window are added
+ * directly after their transaction commits.
+ */
+@Component
+@Slf4j
+public class EmailJobScheduler {
+    
+    private final EmailScheduleService scheduleService;
+    private final HierarchicalTimingWheel<String> wheel;
+    private final Set<String> inWheel = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService workers;
+    private final long tickMillis;
+    private final long lookaheadMillis;
+    private final int loadLimit;
+    private final int maxAttempts;
+    
+    public EmailJobScheduler(EmailScheduleService scheduleService,
+                             @Value("${email.schedule.tick-ms:100}") long tickMillis,
+                             @Value("${email.schedule.wheel-size:64}") int wheelSize,
+                             @Value("${email.schedule.lookahead-seconds:300}") long lookaheadSeconds,
+                             @Value("${email.schedule.load-limit:10000}") int loadLimit,
+                             @Value("${email.schedule.worker-threads:2}") int workerThreads,
+                             @Value("${email.schedule.max-attempts:5}") int maxAttempts) {
+        this.scheduleService = scheduleService;
+        this.tickMillis = tickMillis;
+        this.lookaheadMillis = lookaheadSeconds * 1000;
+        this.loadLimit = loadLimit;
+        this.maxAttempts = maxAttempts;
+        // Three levels of 64 x 100ms cover ~7 hours, far beyond the look-ahead window
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, 3, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("email-schedule-tick"));
+        this.workers = Executors.newFixedThreadPool(workerThreads, daemon("email-schedule-worker"));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadUpcoming();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @Scheduled(fixedDelayString = "${email.schedule.load-interval-ms:60000}")
+    public void loadUpcoming() {
+        try {
+            LocalDateTime until = LocalDateTime.now().plusNanos(lookaheadMillis * 1_000_000);
+            List<EmailScheduledJob> jobs = scheduleService.findPendingBefore(until, loadLimit);
+            jobs.forEach(job -> offer(job.getId(), job.getDueAt()));
+        } catch (Exception e) {
+            log.error("Error loading scheduled email jobs", e);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobScheduled(EmailJobScheduledEvent event) {
+        offer(event.jobId(), event.dueAt());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        workers.shutdown();
+    }
+    
+    private void offer(String jobId, LocalDateTime dueAt) {
+        long dueMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Outside the window: the periodic load picks it up later
+        if (dueMillis > System.currentTimeMillis() + lookaheadMillis || !inWheel.add(jobId)) {
+            return;
+        }
+        synchronized (wheel) {
+            if (!wheel.add(jobId, dueMillis)) {
+                inWheel.remove(jobId);
+            }
+        }
+    }
+    
+    private void tick() {
+        List<String> due;
+        synchronized (wheel) {
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        for (String jobId : due) {
+            try {
+                workers.execute(() -> run(jobId));
+            } catch (RejectedExecutionException e) {
+                inWheel.remove(jobId);
+            }
+        }
+    }
+    
+    private void run(String jobId) {
+        try {
+            scheduleService.fire(jobId);
+        } catch (Exception e) {
+            // Still PENDING in the table, so the next load retries it until the attempts run out
+            log.error("Scheduled email job {} failed", jobId, e);
+            recordFailure(jobId);
+        } finally {
+            inWheel.remove(jobId);
+        }
+    }
+    
+    private void recordFailure(String jobId) {
+        try {
+            if (scheduleService.recordFailure(jobId, maxAttempts)) {
+                log.error("Scheduled email job {} failed {} times, giving up", jobId, maxAttempts);
+            }
+        } catch (Exception e) {
+            log.error("Could not record failure of scheduled email job {}", jobId, e);
+        }
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.syncora.email.schedule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (as in Varghese & Lauck / Kafka's purgatory). Level 0 has
+ * {@code wheelSize} slots of one tick each; every level above covers {@code wheelSize} times
+ * the span of the one below. Items further out sit in a coarse slot and cascade down as the
+ * wheel turns, so adding an item and advancing one tick are both O(1) amortized regardless of
+ * how many items are pending.
+ *
+ * <p>Not thread-safe; {@link EmailJobScheduler} confines it to one lock.
+ */
+final class HierarchicalTimingWheel<T> {
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long startMillis;
+    private final List<ArrayDeque<Timer<T>>[]> levels = new ArrayList<>();
+    private final long horizonTicks;
+    private long currentTick;
+    private int size;
+    
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.startMillis = startMillis;
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            ArrayDeque<Timer<T>>[] slots = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                slots[i] = new ArrayDeque<>();
+            }
+            levels.add(slots);
+            span *= wheelSize;
+        }
+        this.horizonTicks = span;
+    }
+    
+    /** Furthest point in time, in epoch millis, that can currently be scheduled. */
+    long horizonMillis() {
+        return startMillis + (currentTick + horizonTicks - 1) * tickMillis;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Schedules {@code item} at {@code dueMillis}.
+     *
+     * @return false when the time is beyond the horizon; overdue items go into the next tick
+     */
+    boolean add(T item, long dueMillis) {
+        // Round up so an item never fires before its due time
+        long dueTick = Math.max(ticksAt(dueMillis + tickMillis - 1), currentTick + 1);
+        if (dueTick - currentTick >= horizonTicks) {
+            return false;
+        }
+        place(new Timer<>(item, dueTick));
+        size++;
+        return true;
+    }
+    
+    /** Turns the wheel up to {@code nowMillis} and returns every item that fell due. */
+    List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        long targetTick = ticksAt(nowMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            ArrayDeque<Timer<T>> slot = levels.get(0)[(int) (currentTick % wheelSize)];
+            while (!slot.isEmpty()) {
+                due.add(slot.poll().item);
+                size--;
+            }
+        }
+        return due;
+    }
+    
+    // When a level wraps, the matching slot of the level above is redistributed downwards
+    private void cascade(int level) {
+        if (level >= levels.size() || currentTick % pow(level) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        ArrayDeque<Timer<T>> slot = levels.get(level)[(int) ((currentTick / pow(level)) % wheelSize)];
+        List<Timer<T>> moving = new ArrayList<>(slot);
+        slot.clear();
+        moving.forEach(this::place);
+    }
+    
+    private void place(Timer<T> timer) {
+        long delta = timer.dueTick - currentTick;
+        int level = 0;
+        while (level < levels.size() - 1 && delta >= pow(level + 1)) {
+            level++;
+        }
+        levels.get(level)[(int) ((timer.dueTick / pow(level)) % wheelSize)].add(timer);
+    }
+    
+    private long pow(int level) {
+        long value = 1;
+        for (int i = 0; i < level; i++) {
+            value *= wheelSize;
+        }
+        return value;
+    }
+    
+    private long ticksAt(long millis) {
+        return Math.floorDiv(millis - startMillis, tickMillis);
+    }
+    
+    private record Timer<T>(T item, long dueTick) {
+    }
+}
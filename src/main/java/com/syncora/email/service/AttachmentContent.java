@@ -0,0 +1,10 @@
+package com.syncora.email.service;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * An attachment ready to stream: metadata plus a file-backed resource. {@code contentHash}
+ * doubles as a strong ETag because blob content never changes.
+ */
+public record AttachmentContent(String filename, String mimeType, long size, String contentHash, Resource resource) {
+}
@@ -0,0 +1,188 @@
+package com.syncora.email.service;
+
+import com.syncora.email.dto.EmailAttachmentDto;
+import com.syncora.email.entity.EmailAttachment;
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.mapper.EmailMapper;
+import com.syncora.email.repository.EmailAttachmentRepository;
+import com.syncora.email.repository.MailboxEntryRepository;
+import com.syncora.storage.StorageService;
+import com.syncora.storage.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Attachment uploads, downloads and blob lifetime. Files are uploaded before the email is
+ * composed and referenced by id from the compose request; the bytes are stored once per
+ * distinct content, so an attachment sent to many recipients (or forwarded again) costs one blob.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailAttachmentService {
+    
+    private static final int PURGE_BATCH_SIZE = 500;
+    
+    private final EmailAttachmentRepository attachmentRepository;
+    private final MailboxEntryRepository mailboxEntryRepository;
+    private final StorageService storageService;
+    private final EmailMapper emailMapper;
+    
+    @Value("${storage.max-size:20971520}")
+    private long maxSize;
+    
+    @Value("${storage.email.unattached-ttl-hours:24}")
+    private long unattachedTtlHours;
+    
+    @Value("${storage.email.delete-grace-seconds:300}")
+    private long deleteGraceSeconds;
+    
+    // Not @Transactional: the bytes are streamed to disk before the short insert
+    public EmailAttachmentDto upload(String ownerEmail, MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty");
+        }
+        if (file.getSize() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "File exceeds the attachment size limit");
+        }
+        
+        StoredBlob blob;
+        try (InputStream in = file.getInputStream()) {
+            blob = storageService.store(in, maxSize);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        }
+        
+        EmailAttachment attachment = attachmentRepository.save(EmailAttachment.builder()
+                .filename(file.getOriginalFilename() != null ? file.getOriginalFilename() : "attachment")
+                .size(blob.size())
+                .mimeType(safeMimeType(file.getContentType()))
+                .contentHash(blob.hash())
+                .uploadedBy(ownerEmail)
+                .build());
+        log.info("Attachment {} uploaded by {} ({} bytes{})", attachment.getId(), ownerEmail, blob.size(),
+                blob.deduplicated() ? ", deduplicated" : "");
+        return emailMapper.toAttachmentDto(attachment);
+    }
+    
+    /** Binds the sender's pending uploads to a freshly saved message. */
+    @Transactional
+    public void attach(String ownerEmail, List<String> attachmentIds, EmailMessage message) {
+        if (attachmentIds == null || attachmentIds.isEmpty()) {
+            return;
+        }
+        Set<String> ids = new LinkedHashSet<>(attachmentIds);
+        List<EmailAttachment> uploads = attachmentRepository.findByIdInAndUploadedByAndMessageIsNull(ids, ownerEmail);
+        if (uploads.size() != ids.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown or already used attachment");
+        }
+        for (EmailAttachment upload : uploads) {
+            upload.setMessage(message);
+            message.getAttachments().add(upload);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public AttachmentContent open(String attachmentId, String ownerEmail) {
+        EmailAttachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+        
+        boolean allowed = attachment.getMessage() == null
+                ? attachment.getUploadedBy().equals(ownerEmail)
+                : mailboxEntryRepository.existsByOwnerEmailAndMessage_Id(ownerEmail, attachment.getMessage().getId());
+        if (!allowed) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found");
+        }
+        
+        if (attachment.getContentHash() == null) {
+            // Migrated legacy attachment: its content lives at legacyUrl, not in the blob store
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment content not found");
+        }
+        try {
+            return new AttachmentContent(attachment.getFilename(),
+                    attachment.getMimeType() != null ? attachment.getMimeType() : "application/octet-stream",
+                    attachment.getSize(), attachment.getContentHash(), storageService.load(attachment.getContentHash()));
+        } catch (IllegalArgumentException e) {
+            log.error("Blob missing for attachment {}", attachmentId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment content not found");
+        }
+    }
+    
+    /** Hashes of the blobs behind these messages; collect them before the messages are deleted. */
+    @Transactional(readOnly = true)
+    public List<String> findBlobHashes(Collection<String> messageIds) {
+        return messageIds.isEmpty() ? List.of() : attachmentRepository.findContentHashesByMessageIdIn(messageIds);
+    }
+    
+    /**
+     * Removes the blobs no attachment references once the current transaction commits, so a
+     * rolled-back delete never loses content.
+     */
+    public void releaseBlobsAfterCommit(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        Set<String> candidates = new HashSet<>(hashes);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseBlobs(candidates);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseBlobs(candidates);
+            }
+        });
+    }
+    
+    /** Deletes uploads older than the TTL that were never sent, and their blobs if unshared. */
+    @Transactional
+    public int purgeUnattached() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(unattachedTtlHours);
+        List<EmailAttachment> stale = attachmentRepository.findUnattachedBefore(cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        Set<String> hashes = new HashSet<>();
+        stale.forEach(a -> hashes.add(a.getContentHash()));
+        attachmentRepository.deleteAllInBatch(stale);
+        releaseBlobsAfterCommit(hashes);
+        log.info("Purged {} unsent email attachments", stale.size());
+        return stale.size();
+    }
+    
+    private static String safeMimeType(String contentType) {
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType).toString() : null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+    
+    private void releaseBlobs(Set<String> hashes) {
+        try {
+            hashes.removeAll(attachmentRepository.findReferencedHashes(hashes));
+            Duration grace = Duration.ofSeconds(deleteGraceSeconds);
+            hashes.forEach(hash -> storageService.delete(hash, grace));
+        } catch (RuntimeException e) {
+            log.error("Error releasing attachment blobs", e);
+        }
+    }
+}
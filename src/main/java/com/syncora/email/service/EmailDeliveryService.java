@@ -0,0 +1,187 @@
+package com.syncora.email.service;
+
+import com.syncora.email.dto.NewEmailNotification;
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.EmailOutbox;
+import com.syncora.email.entity.EmailOutbox.OutboxStatus;
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import com.syncora.email.repository.EmailMessageRepository;
+import com.syncora.email.repository.EmailOutboxRepository;
+import com.syncora.email.repository.MailboxEntryRepository;
+import com.syncora.email.rules.CompiledMailboxRules;
+import com.syncora.email.rules.MailboxRuleEngine;
+import com.syncora.email.rules.RuleOutcome;
+import com.syncora.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Transactional steps of outbox delivery. Each call is its own short transaction so a
+ * large fan-out never holds one long transaction open; {@link EmailDeliveryWorker} drives them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeliveryService {
+    
+    private static final List<OutboxStatus> CLAIMABLE = List.of(OutboxStatus.PENDING, OutboxStatus.PROCESSING);
+    
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailMessageRepository emailMessageRepository;
+    private final MailboxEntryRepository mailboxEntryRepository;
+    private final UserRepository userRepository;
+    private final MailboxCounterService mailboxCounterService;
+    private final MailboxRuleEngine mailboxRuleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${email.delivery.lease-seconds:300}")
+    private long leaseSeconds;
+    
+    @Value("${email.delivery.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${email.delivery.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+    
+    /**
+     * Records an outbox row for every recipient of {@code message} except the sender and hands
+     * it to the worker once the caller's transaction commits. Returns the number queued.
+     */
+    @Transactional
+    public int enqueue(EmailMessage message) {
+        Set<String> recipients = new HashSet<>();
+        recipients.addAll(message.getTo());
+        recipients.addAll(message.getCc());
+        recipients.addAll(message.getBcc());
+        // Remove sender from recipients (in case they included themselves)
+        recipients.remove(message.getFrom());
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        
+        EmailOutbox outbox = outboxRepository.save(EmailOutbox.builder()
+                .messageId(message.getId())
+                .senderEmail(message.getFrom())
+                .pendingRecipients(recipients)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new EmailQueuedEvent(outbox.getId()));
+        return recipients.size();
+    }
+    
+    public List<String> findDueIds(int limit) {
+        return outboxRepository.findDueIds(CLAIMABLE, LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+    
+    public boolean claim(String outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        return outboxRepository.claim(outboxId, OutboxStatus.PROCESSING, CLAIMABLE, now,
+                now.plusSeconds(leaseSeconds)) == 1;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<String> getPendingRecipients(String outboxId) {
+        return outboxRepository.findById(outboxId)
+                .map(outbox -> new ArrayList<>(outbox.getPendingRecipients()))
+                .orElseGet(ArrayList::new);
+    }
+    
+    /**
+     * Writes inbox entries for one batch of recipients and removes them from the outbox in the
+     * same transaction. Each recipient's mailbox rules pick the folder, labels and read state.
+     * Unregistered addresses are dropped, matching the old synchronous send.
+     * <p>
+     * The outbox row is locked for the batch and only recipients still pending are written, so a
+     * second worker that reclaimed the delivery after a lease expiry skips what the first one
+     * already delivered. Each batch also extends the lease.
+     */
+    @Transactional
+    public List<NewEmailNotification> deliverBatch(String outboxId, List<String> batch) {
+        EmailOutbox outbox = outboxRepository.findByIdForUpdate(outboxId)
+                .orElseThrow(() -> new IllegalStateException("Outbox record not found: " + outboxId));
+        List<String> recipients = batch.stream().filter(outbox.getPendingRecipients()::contains).toList();
+        if (outbox.getStatus() == OutboxStatus.PROCESSING) {
+            outbox.setNextAttemptAt(LocalDateTime.now().plusSeconds(leaseSeconds));
+        }
+        if (recipients.isEmpty()) {
+            return List.of();
+        }
+        EmailMessage message = emailMessageRepository.findById(outbox.getMessageId())
+                .orElseThrow(() -> new IllegalStateException("Message not found: " + outbox.getMessageId()));
+        
+        Set<String> registered = new HashSet<>(userRepository.findExistingEmails(recipients));
+        Map<String, CompiledMailboxRules> rules = mailboxRuleEngine.rulesFor(registered);
+        List<MailboxEntry> entries = new ArrayList<>(registered.size());
+        for (String recipient : recipients) {
+            if (!registered.contains(recipient)) {
+                continue;
+            }
+            RuleOutcome outcome = rules.getOrDefault(recipient, CompiledMailboxRules.EMPTY).evaluate(message);
+            MailboxEntry entry = MailboxEntry.builder()
+                    .message(message)
+                    .ownerEmail(recipient)
+                    .folder(outcome.folder() != null ? outcome.folder() : EmailFolder.INBOX)
+                    .isRead(outcome.markAsRead())
+                    .isStarred(false)
+                    .sentAt(message.getSentAt())
+                    .build();
+            outcome.labels().forEach(entry::addLabel);
+            entries.add(entry);
+        }
+        mailboxEntryRepository.saveAll(entries);
+        entries.forEach(entry -> mailboxCounterService.entryAdded(entry.getOwnerEmail(), entry.getFolder(), entry.getIsRead()));
+        outbox.getPendingRecipients().removeAll(recipients);
+        
+        if (registered.size() < recipients.size()) {
+            log.debug("Skipped {} unregistered recipients for outbox {}", recipients.size() - registered.size(), outboxId);
+        }
+        
+        return entries.stream()
+                .map(entry -> new NewEmailNotification(entry.getId(), entry.getOwnerEmail(), entry.getFolder().name().toLowerCase(),
+                        message.getFrom(), message.getFromName(), message.getSubject(), message.getSentAt()))
+                .toList();
+    }
+    
+    /**
+     * Closes an attempt: delivered when nothing is pending, otherwise rescheduled with
+     * exponential backoff until {@code email.delivery.max-attempts} is reached.
+     */
+    @Transactional
+    public void completeAttempt(String outboxId, String lastError) {
+        EmailOutbox outbox = outboxRepository.findById(outboxId).orElse(null);
+        if (outbox == null) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (outbox.getPendingRecipients().isEmpty()) {
+            outbox.setStatus(OutboxStatus.DELIVERED);
+            outbox.setDeliveredAt(now);
+            outbox.setLastError(null);
+            return;
+        }
+        
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        outbox.setLastError(lastError != null && lastError.length() > 1000 ? lastError.substring(0, 1000) : lastError);
+        if (attempts >= maxAttempts) {
+            outbox.setStatus(OutboxStatus.FAILED);
+            log.error("Email delivery {} failed permanently for {} recipients after {} attempts",
+                    outboxId, outbox.getPendingRecipients().size(), attempts);
+        } else {
+            outbox.setStatus(OutboxStatus.PENDING);
+            outbox.setNextAttemptAt(now.plusSeconds(retryBackoffSeconds << (attempts - 1)));
+            log.warn("Email delivery {} will retry {} recipients (attempt {}/{})",
+                    outboxId, outbox.getPendingRecipients().size(), attempts, maxAttempts);
+        }
+    }
+}
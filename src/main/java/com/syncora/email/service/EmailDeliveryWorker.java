@@ -0,0 +1,105 @@
+package com.syncora.email.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Fans queued emails out to recipient inboxes on a small worker pool. New sends are handed
+ * over right after their transaction commits; the poller picks up retries and anything a
+ * crashed or saturated worker left behind.
+ */
+@Component
+@Slf4j
+public class EmailDeliveryWorker {
+    
+    private final EmailDeliveryService deliveryService;
+    private final MailboxNotifier mailboxNotifier;
+    private final ThreadPoolTaskExecutor executor;
+    private final int batchSize;
+    private final int pollLimit;
+    
+    public EmailDeliveryWorker(EmailDeliveryService deliveryService,
+                               MailboxNotifier mailboxNotifier,
+                               @Value("${email.delivery.pool-size:4}") int poolSize,
+                               @Value("${email.delivery.queue-capacity:500}") int queueCapacity,
+                               @Value("${email.delivery.batch-size:100}") int batchSize,
+                               @Value("${email.delivery.poll-limit:50}") int pollLimit) {
+        this.deliveryService = deliveryService;
+        this.mailboxNotifier = mailboxNotifier;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollLimit = Math.max(1, pollLimit);
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("email-delivery-");
+        this.executor.initialize();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        submit(event.outboxId());
+    }
+    
+    @Scheduled(fixedDelayString = "${email.delivery.poll-interval-ms:30000}")
+    public void pollDueDeliveries() {
+        try {
+            deliveryService.findDueIds(pollLimit).forEach(this::submit);
+        } catch (Exception e) {
+            log.error("Error polling email outbox", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    private void submit(String outboxId) {
+        try {
+            executor.execute(() -> deliver(outboxId));
+        } catch (TaskRejectedException e) {
+            // The record stays PENDING, so the next poll retries it
+            log.warn("Email delivery queue full, deferring outbox {}", outboxId);
+        }
+    }
+    
+    void deliver(String outboxId) {
+        if (!deliveryService.claim(outboxId)) {
+            return;
+        }
+        
+        String lastError = null;
+        try {
+            List<String> recipients = deliveryService.getPendingRecipients(outboxId);
+            for (int from = 0; from < recipients.size(); from += batchSize) {
+                List<String> batch = recipients.subList(from, Math.min(from + batchSize, recipients.size()));
+                try {
+                    deliveryService.deliverBatch(outboxId, batch).forEach(mailboxNotifier::newEmail);
+                } catch (Exception e) {
+                    lastError = e.getMessage();
+                    log.warn("Failed to deliver batch of {} recipients for outbox {}: {}", batch.size(), outboxId, e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.error("Email delivery {} aborted", outboxId, e);
+        } finally {
+            try {
+                deliveryService.completeAttempt(outboxId, lastError);
+            } catch (Exception e) {
+                // Lease expiry lets the poller reclaim it
+                log.error("Failed to record delivery attempt for outbox {}", outboxId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.syncora.email.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a scheduled send or snooze is stored; the timing wheel picks it up after commit.
+ */
+public record EmailJobScheduledEvent(String jobId, LocalDateTime dueAt) {
+}
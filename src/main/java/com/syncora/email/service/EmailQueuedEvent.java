@@ -0,0 +1,7 @@
+package com.syncora.email.service;
+
+/**
+ * Published when a send commits its outbox record; the delivery worker picks it up after commit.
+ */
+public record EmailQueuedEvent(String outboxId) {
+}
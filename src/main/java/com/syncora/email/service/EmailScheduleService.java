@@ -0,0 +1,135 @@
+package com.syncora.email.service;
+
+import com.syncora.email.dto.MailboxChangeEvent;
+import com.syncora.email.entity.EmailScheduledJob;
+import com.syncora.email.entity.EmailScheduledJob.JobStatus;
+import com.syncora.email.entity.EmailScheduledJob.JobType;
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import com.syncora.email.repository.EmailScheduledJobRepository;
+import com.syncora.email.repository.MailboxEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stores delayed mailbox jobs and runs them when the timing wheel fires. Every job moves
+ * PENDING to DONE with a conditional update inside the same transaction as its action, so
+ * it runs once even when several instances load the same job.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailScheduleService {
+    
+    private final EmailScheduledJobRepository jobRepository;
+    private final MailboxEntryRepository mailboxEntryRepository;
+    private final EmailDeliveryService emailDeliveryService;
+    private final MailboxCounterService mailboxCounterService;
+    private final MailboxNotifier mailboxNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public EmailScheduledJob schedule(JobType type, String ownerEmail, String entryId, LocalDateTime dueAt) {
+        EmailScheduledJob job = jobRepository.save(EmailScheduledJob.builder()
+                .type(type)
+                .ownerEmail(ownerEmail)
+                .entryId(entryId)
+                .dueAt(dueAt)
+                .build());
+        eventPublisher.publishEvent(new EmailJobScheduledEvent(job.getId(), dueAt));
+        return job;
+    }
+    
+    /** Cancels the pending jobs for an entry, if any. Returns whether one was cancelled. */
+    @Transactional
+    public boolean cancel(String entryId) {
+        return cancelAll(List.of(entryId)) > 0;
+    }
+    
+    /**
+     * Cancels every pending job of the given entries. Called whenever an entry leaves Scheduled or
+     * Snoozed or is deleted, so an old wake-up or send cannot fire after the entry was moved back.
+     */
+    @Transactional
+    public int cancelAll(Collection<String> entryIds) {
+        if (entryIds.isEmpty()) {
+            return 0;
+        }
+        return jobRepository.transitionForEntries(entryIds, JobStatus.PENDING, JobStatus.CANCELLED);
+    }
+    
+    /**
+     * Records a failed run of a job that is still pending. It stays PENDING for the next load to
+     * retry until {@code maxAttempts} runs failed, then it is marked FAILED and no longer loaded.
+     * Returns whether the job was given up.
+     */
+    @Transactional
+    public boolean recordFailure(String jobId, int maxAttempts) {
+        if (jobRepository.incrementAttempts(jobId, JobStatus.PENDING) == 0) {
+            return false;
+        }
+        return jobRepository.transitionIfExhausted(jobId, maxAttempts, JobStatus.PENDING, JobStatus.FAILED) == 1;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EmailScheduledJob> findPendingBefore(LocalDateTime until, int limit) {
+        return jobRepository.findDueBefore(JobStatus.PENDING, until, PageRequest.of(0, limit));
+    }
+    
+    @Transactional
+    public void fire(String jobId) {
+        EmailScheduledJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != JobStatus.PENDING
+                || jobRepository.transition(jobId, JobStatus.PENDING, JobStatus.DONE) == 0) {
+            return;
+        }
+        
+        MailboxEntry entry = mailboxEntryRepository.findById(job.getEntryId()).orElse(null);
+        if (entry == null) {
+            return;
+        }
+        
+        switch (job.getType()) {
+            case SEND -> send(entry);
+            case UNSNOOZE -> unsnooze(entry);
+        }
+    }
+    
+    private void send(MailboxEntry entry) {
+        // The user moved it out of Scheduled in the meantime, which cancels the send
+        if (entry.getFolder() != EmailFolder.SCHEDULED) {
+            return;
+        }
+        entry.setFolder(EmailFolder.SENT);
+        mailboxCounterService.entryMoved(entry.getOwnerEmail(), EmailFolder.SCHEDULED, EmailFolder.SENT,
+                Boolean.TRUE.equals(entry.getIsRead()));
+        int queued = emailDeliveryService.enqueue(entry.getMessage());
+        mailboxNotifier.mailboxChanged(entry.getOwnerEmail(),
+                new MailboxChangeEvent("MOVED", List.of(entry.getId()), "sent", null));
+        log.info("Scheduled email {} sent, queued delivery to {} recipients", entry.getId(), queued);
+    }
+    
+    private void unsnooze(MailboxEntry entry) {
+        if (entry.getFolder() != EmailFolder.SNOOZED) {
+            return;
+        }
+        boolean wasRead = Boolean.TRUE.equals(entry.getIsRead());
+        // Snoozed mail comes back to the inbox as unread
+        entry.setFolder(EmailFolder.INBOX);
+        entry.setIsRead(false);
+        mailboxCounterService.entryMoved(entry.getOwnerEmail(), EmailFolder.SNOOZED, EmailFolder.INBOX, wasRead);
+        if (wasRead) {
+            mailboxCounterService.readStateChanged(entry.getOwnerEmail(), EmailFolder.INBOX, false);
+        }
+        mailboxNotifier.mailboxChanged(entry.getOwnerEmail(),
+                new MailboxChangeEvent("MOVED", List.of(entry.getId()), "inbox", null));
+    }
+}
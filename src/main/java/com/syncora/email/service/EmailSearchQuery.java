@@ -0,0 +1,92 @@
+package com.syncora.email.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed mailbox search string. Supports free terms, quoted phrases and the
+ * {@code from:}, {@code subject:} and {@code has:attachment} operators, e.g.
+ * {@code from:alice subject:"q3 budget" has:attachment invoice}. The words of a quoted
+ * phrase must appear next to each other and in order.
+ *
+ * @param tsQuery       PostgreSQL {@code to_tsquery} text, empty when there are no text terms
+ * @param fromPattern   ILIKE pattern for the sender name/address, empty when not filtered
+ * @param hasAttachment only match messages with attachments
+ */
+public record EmailSearchQuery(String tsQuery, String fromPattern, boolean hasAttachment) {
+    
+    private static final Pattern TOKEN = Pattern.compile("(\\w+):\"([^\"]*)\"|(\\w+):(\\S+)|\"([^\"]*)\"|(\\S+)");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    
+    public static EmailSearchQuery parse(String input) {
+        List<String> terms = new ArrayList<>();
+        List<String> fromValues = new ArrayList<>();
+        boolean hasAttachment = false;
+        
+        Matcher matcher = TOKEN.matcher(input == null ? "" : input);
+        while (matcher.find()) {
+            String operator = matcher.group(1) != null ? matcher.group(1) : matcher.group(3);
+            String value = matcher.group(2) != null ? matcher.group(2) : matcher.group(4);
+            if (operator == null) {
+                if (matcher.group(5) != null) {
+                    addPhrase(terms, matcher.group(5), "");
+                } else {
+                    addTerms(terms, matcher.group(6), "");
+                }
+                continue;
+            }
+            boolean quoted = matcher.group(2) != null;
+            
+            switch (operator.toLowerCase(Locale.ROOT)) {
+                case "from" -> fromValues.add(value);
+                case "subject" -> {
+                    if (quoted) {
+                        addPhrase(terms, value, ":A");
+                    } else {
+                        addTerms(terms, value, ":A");
+                    }
+                }
+                case "has" -> {
+                    if ("attachment".equalsIgnoreCase(value) || "attachments".equalsIgnoreCase(value)) {
+                        hasAttachment = true;
+                    }
+                }
+                // Unknown operators are searched as plain text
+                default -> addTerms(terms, operator + " " + value, "");
+            }
+        }
+        
+        String fromPattern = fromValues.isEmpty() ? "" : "%" + escapeLike(fromValues.get(fromValues.size() - 1)) + "%";
+        return new EmailSearchQuery(String.join(" & ", terms), fromPattern, hasAttachment);
+    }
+    
+    public boolean isEmpty() {
+        return tsQuery.isEmpty() && fromPattern.isEmpty() && !hasAttachment;
+    }
+    
+    // Only letters/digits reach to_tsquery, so user input can never produce a tsquery syntax error
+    private static void addTerms(List<String> terms, String value, String weight) {
+        Matcher word = WORD.matcher(value);
+        while (word.find()) {
+            terms.add(word.group().toLowerCase(Locale.ROOT) + weight);
+        }
+    }
+    
+    // <-> is tsquery's "followed by"; stop words dropped inside the phrase widen the distance
+    private static void addPhrase(List<String> terms, String value, String weight) {
+        List<String> words = new ArrayList<>();
+        addTerms(words, value, weight);
+        if (words.size() > 1) {
+            terms.add("(" + String.join(" <-> ", words) + ")");
+        } else {
+            terms.addAll(words);
+        }
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
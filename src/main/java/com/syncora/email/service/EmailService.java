@@ -1,14 +1,31 @@
 package com.syncora.email.service;
 
+import com.syncora.email.dto.BulkOperationResultDto;
 import com.syncora.email.dto.EmailComposeRequest;
 import com.syncora.email.dto.EmailDto;
-import com.syncora.email.entity.Email;
-import com.syncora.email.entity.Email.EmailFolder;
+import com.syncora.email.dto.EmailFolderCountDto;
+import com.syncora.email.dto.EmailPageDto;
+import com.syncora.email.dto.EmailThreadDto;
+import com.syncora.email.dto.MailboxChangeEvent;
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.EmailOutbox;
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.entity.EmailScheduledJob.JobType;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
 import com.syncora.email.mapper.EmailMapper;
-import com.syncora.email.repository.EmailRepository;
+import com.syncora.email.repository.EmailMessageRepository;
+import com.syncora.email.repository.EmailOutboxRepository;
+import com.syncora.email.repository.LabelCount;
+import com.syncora.email.repository.MailboxEntryRepository;
+import com.syncora.email.repository.MailboxEntryState;
+import com.syncora.email.repository.MailboxEntrySummary;
+import com.syncora.email.repository.MailboxLabelRepository;
+import com.syncora.email.service.MailboxCounterService.CounterDelta;
 import com.syncora.user.entity.User;
 import com.syncora.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,31 +33,51 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class EmailService {
     
-    private final EmailRepository emailRepository;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final List<EmailOutbox.OutboxStatus> ACTIVE_OUTBOX_STATUSES =
+            List.of(EmailOutbox.OutboxStatus.PENDING, EmailOutbox.OutboxStatus.PROCESSING);
+    // Folders an entry only enters and leaves through a scheduled job
+    private static final Set<EmailFolder> TIMED_FOLDERS = EnumSet.of(EmailFolder.SCHEDULED, EmailFolder.SNOOZED);
+    
+    private final MailboxEntryRepository mailboxEntryRepository;
+    private final EmailMessageRepository emailMessageRepository;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailDeliveryService emailDeliveryService;
+    private final EmailScheduleService emailScheduleService;
+    private final EmailAttachmentService emailAttachmentService;
     private final UserRepository userRepository;
     private final EmailMapper emailMapper;
+    private final MailboxCounterService mailboxCounterService;
+    private final MailboxNotifier mailboxNotifier;
+    private final MailboxLabelRepository mailboxLabelRepository;
     
+    @Transactional(readOnly = true)
     public List<EmailDto> getEmails(String ownerEmail, String folder, Boolean isRead, 
                                      Boolean isStarred, String search) {
-        List<Email> emails;
+        List<MailboxEntry> emails;
         
         if (search != null && !search.isEmpty()) {
-            emails = emailRepository.searchEmails(ownerEmail, search);
+            return searchEmails(ownerEmail, search, 0, DEFAULT_SEARCH_PAGE_SIZE);
         } else if (folder != null && !folder.isEmpty()) {
             EmailFolder folderEnum = EmailFolder.valueOf(folder.toUpperCase());
-            emails = emailRepository.findByOwnerEmailAndFolderOrderBySentAtDesc(ownerEmail, folderEnum);
+            emails = mailboxEntryRepository.findByOwnerEmailAndFolderOrderBySentAtDesc(ownerEmail, folderEnum);
         } else if (isStarred != null) {
-            emails = emailRepository.findByOwnerEmailAndIsStarredOrderBySentAtDesc(ownerEmail, isStarred);
+            emails = mailboxEntryRepository.findByOwnerEmailAndIsStarredOrderBySentAtDesc(ownerEmail, isStarred);
         } else if (isRead != null) {
-            emails = emailRepository.findByOwnerEmailAndIsReadOrderBySentAtDesc(ownerEmail, isRead);
+            emails = mailboxEntryRepository.findByOwnerEmailAndIsReadOrderBySentAtDesc(ownerEmail, isRead);
         } else {
-            emails = emailRepository.findByOwnerEmailOrderBySentAtDesc(ownerEmail);
+            emails = mailboxEntryRepository.findByOwnerEmailOrderBySentAtDesc(ownerEmail);
         }
         
         return emails.stream()
@@ -48,8 +85,127 @@ public class EmailService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * One page of a folder as summaries, newest first. Pass the previous page's
+     * {@code nextCursor} to continue; bodies are only loaded by {@link #getEmail}.
+     */
+    @Transactional(readOnly = true)
+    public EmailPageDto listFolder(String ownerEmail, String folderName, String cursor, int limit) {
+        EmailFolder folder = EmailFolder.valueOf(folderName.toUpperCase());
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIST_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        
+        List<MailboxEntrySummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = mailboxEntryRepository.findSummaries(ownerEmail, folder, page);
+        } else {
+            MailboxCursor after = MailboxCursor.decode(cursor);
+            rows = mailboxEntryRepository.findSummariesAfter(ownerEmail, folder, after.sentAt(), after.id(), page);
+        }
+        return toPage(rows, pageSize);
+    }
+    
+    /**
+     * Same as {@link #listFolder} but for every entry carrying {@code label}, across folders.
+     */
+    @Transactional(readOnly = true)
+    public EmailPageDto listLabel(String ownerEmail, String label, String cursor, int limit) {
+        String normalized = normalizeLabel(label);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIST_PAGE_SIZE);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        
+        List<MailboxEntrySummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = mailboxLabelRepository.findSummaries(ownerEmail, normalized, page);
+        } else {
+            MailboxCursor after = MailboxCursor.decode(cursor);
+            rows = mailboxLabelRepository.findSummariesAfter(ownerEmail, normalized, after.sentAt(), after.id(), page);
+        }
+        return toPage(rows, pageSize);
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, EmailFolderCountDto> getLabelCounts(String ownerEmail) {
+        Map<String, EmailFolderCountDto> counts = new LinkedHashMap<>();
+        for (LabelCount row : mailboxLabelRepository.countByLabel(ownerEmail)) {
+            counts.put(row.getLabel(), new EmailFolderCountDto(
+                    row.getUnread() != null ? row.getUnread() : 0,
+                    row.getTotal() != null ? row.getTotal() : 0));
+        }
+        return counts;
+    }
+    
+    private EmailPageDto toPage(List<MailboxEntrySummary> rows, int pageSize) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            MailboxEntrySummary last = rows.get(pageSize - 1);
+            nextCursor = new MailboxCursor(last.getSentAt(), last.getId()).encode();
+        }
+        
+        return EmailPageDto.builder()
+                .items(rows.stream().map(emailMapper::toSummaryDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    /**
+     * Conversations in the mailbox ordered by latest activity, one grouped query per page.
+     * Without a folder, everything except trash and spam is included.
+     */
+    @Transactional(readOnly = true)
+    public List<EmailThreadDto> listThreads(String ownerEmail, String folderName, int page, int size) {
+        String folder = folderName == null || folderName.isBlank()
+                ? ""
+                : EmailFolder.valueOf(folderName.toUpperCase()).name();
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_LIST_PAGE_SIZE));
+        return mailboxEntryRepository.findThreads(ownerEmail, folder, pageable).stream()
+                .map(emailMapper::toThreadDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EmailDto> getThread(String ownerEmail, String threadId) {
+        List<MailboxEntry> entries = mailboxEntryRepository.findByOwnerEmailAndThreadIdOrderBySentAtAsc(ownerEmail, threadId);
+        if (entries.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Thread not found");
+        }
+        return entries.stream()
+                .map(emailMapper::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Relevance-ranked search backed by the email_message GIN index.
+     * See {@link EmailSearchQuery} for the supported operators.
+     */
+    @Transactional(readOnly = true)
+    public List<EmailDto> searchEmails(String ownerEmail, String query, int page, int size) {
+        EmailSearchQuery parsed = EmailSearchQuery.parse(query);
+        if (parsed.isEmpty()) {
+            return List.of();
+        }
+        
+        List<String> ids = mailboxEntryRepository.searchIds(ownerEmail, parsed.tsQuery(), parsed.fromPattern(),
+                parsed.hasAttachment(), PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // Re-apply the ranked order, the IN lookup returns rows in arbitrary order
+        Map<String, MailboxEntry> byId = mailboxEntryRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(MailboxEntry::getId, e -> e));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(emailMapper::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
     public EmailDto getEmail(String id, String ownerEmail) {
-        Email email = emailRepository.findById(id)
+        MailboxEntry email = mailboxEntryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
         
         if (!email.getOwnerEmail().equals(ownerEmail)) {
@@ -64,10 +220,20 @@ public class EmailService {
         User sender = userRepository.findByEmail(senderEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Sender not found"));
         
-        LocalDateTime sentTime = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now();
+        boolean scheduled = request.getScheduledAt() != null;
+        if (scheduled && !request.getScheduledAt().isAfter(now)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Scheduled time must be in the future");
+        }
+        LocalDateTime sentTime = scheduled ? request.getScheduledAt() : now;
+        EmailFolder folder = scheduled ? EmailFolder.SCHEDULED : EmailFolder.SENT;
+        
+        ThreadLink thread = resolveThread(senderEmail, request);
         
-        // Create email for sender (sent folder)
-        Email sentEmail = Email.builder()
+        // Store the content once; every mailbox below only points at it
+        EmailMessage message = emailMessageRepository.save(EmailMessage.builder()
+                .threadId(thread.threadId())
+                .inReplyTo(thread.parentMessageId())
                 .from(senderEmail)
                 .fromName(sender.getName())
                 .to(new ArrayList<>(request.getTo()))
@@ -76,69 +242,35 @@ public class EmailService {
                 .subject(request.getSubject())
                 .body(request.getBody())
                 .htmlBody(request.getHtmlBody())
+                .sentAt(sentTime)
+                .build());
+        emailAttachmentService.attach(senderEmail, request.getAttachmentIds(), message);
+        
+        // Create entry for sender (sent folder, or scheduled until it goes out)
+        MailboxEntry sentEntry = MailboxEntry.builder()
+                .message(message)
+                .ownerEmail(senderEmail)
+                .folder(folder)
                 .isRead(true)
                 .isStarred(false)
-                .folder(EmailFolder.SENT)
                 .sentAt(sentTime)
-                .ownerEmail(senderEmail)
                 .build();
         
-        emailRepository.save(sentEmail);
-        System.out.println("✅ Sent email saved for sender: " + senderEmail);
+        mailboxEntryRepository.save(sentEntry);
+        mailboxCounterService.entryAdded(senderEmail, folder, true);
         
-        // Collect all recipients (To, Cc, Bcc)
-        Set<String> allRecipients = new HashSet<>(request.getTo());
-        if (request.getCc() != null && !request.getCc().isEmpty()) {
-            allRecipients.addAll(request.getCc());
-        }
-        if (request.getBcc() != null && !request.getBcc().isEmpty()) {
-            allRecipients.addAll(request.getBcc());
-        }
-        
-        // Remove sender from recipients (in case they included themselves)
-        allRecipients.remove(senderEmail);
-        
-        System.out.println("📧 Creating inbox emails for " + allRecipients.size() + " recipients: " + allRecipients);
-        
-        // Create inbox email for each recipient
-        int successCount = 0;
-        int skipCount = 0;
-        
-        for (String recipientEmail : allRecipients) {
-            Optional<User> recipientOpt = userRepository.findByEmail(recipientEmail);
-            
-            if (recipientOpt.isPresent()) {
-                User recipient = recipientOpt.get();
-                
-                // Create inbox email for this recipient
-                Email inboxEmail = Email.builder()
-                        .from(senderEmail)
-                        .fromName(sender.getName())
-                        .to(new ArrayList<>(request.getTo()))
-                        .cc(request.getCc() != null ? new ArrayList<>(request.getCc()) : new ArrayList<>())
-                        .bcc(request.getBcc() != null ? new ArrayList<>(request.getBcc()) : new ArrayList<>())
-                        .subject(request.getSubject())
-                        .body(request.getBody())
-                        .htmlBody(request.getHtmlBody())
-                        .isRead(false)
-                        .isStarred(false)
-                        .folder(EmailFolder.INBOX)
-                        .sentAt(sentTime)
-                        .ownerEmail(recipientEmail)
-                        .build();
-                
-                emailRepository.save(inboxEmail);
-                successCount++;
-                System.out.println("  ✅ Inbox email created for: " + recipientEmail);
-            } else {
-                skipCount++;
-                System.out.println("  ⚠️ User not found, skipping: " + recipientEmail);
-            }
+        if (scheduled) {
+            emailScheduleService.schedule(JobType.SEND, senderEmail, sentEntry.getId(), sentTime);
+            log.info("Email {} scheduled for {} by {}", sentEntry.getId(), sentTime, senderEmail);
+            return emailMapper.toDto(sentEntry);
         }
+        System.out.println("✅ Sent email saved for sender: " + senderEmail);
         
-        System.out.println("📊 Email delivery summary: " + successCount + " delivered, " + skipCount + " skipped (user not found)");
+        // Inbox fan-out happens on the delivery worker once this transaction commits
+        int queued = emailDeliveryService.enqueue(message);
+        log.debug("Queued delivery of email {} to {} recipients", sentEntry.getId(), queued);
         
-        return emailMapper.toDto(sentEmail);
+        return emailMapper.toDto(sentEntry);
     }
     
     @Transactional
@@ -146,42 +278,56 @@ public class EmailService {
         User owner = userRepository.findByEmail(ownerEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
         
-        Email draft = Email.builder()
+        LocalDateTime now = LocalDateTime.now();
+        ThreadLink thread = resolveThread(ownerEmail, request);
+        EmailMessage message = emailMessageRepository.save(EmailMessage.builder()
+                .threadId(thread.threadId())
+                .inReplyTo(thread.parentMessageId())
                 .from(ownerEmail)
                 .fromName(owner.getName())
-                .to(request.getTo())
-                .cc(request.getCc())
-                .bcc(request.getBcc())
+                .to(request.getTo() != null ? new ArrayList<>(request.getTo()) : new ArrayList<>())
+                .cc(request.getCc() != null ? new ArrayList<>(request.getCc()) : new ArrayList<>())
+                .bcc(request.getBcc() != null ? new ArrayList<>(request.getBcc()) : new ArrayList<>())
                 .subject(request.getSubject())
                 .body(request.getBody())
                 .htmlBody(request.getHtmlBody())
+                .sentAt(now)
+                .build());
+        emailAttachmentService.attach(ownerEmail, request.getAttachmentIds(), message);
+        
+        MailboxEntry draft = MailboxEntry.builder()
+                .message(message)
+                .ownerEmail(ownerEmail)
+                .folder(EmailFolder.DRAFTS)
                 .isRead(false)
                 .isStarred(false)
-                .folder(EmailFolder.DRAFTS)
-                .sentAt(LocalDateTime.now())
-                .ownerEmail(ownerEmail)
+                .sentAt(now)
                 .build();
         
-        emailRepository.save(draft);
+        mailboxEntryRepository.save(draft);
+        mailboxCounterService.entryAdded(ownerEmail, EmailFolder.DRAFTS, false);
         return emailMapper.toDto(draft);
     }
     
     @Transactional
     public void markAsRead(String id, String ownerEmail, Boolean isRead) {
-        Email email = emailRepository.findById(id)
+        MailboxEntry email = mailboxEntryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
         
         if (!email.getOwnerEmail().equals(ownerEmail)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
         }
         
+        if (!Objects.equals(email.getIsRead(), isRead)) {
+            mailboxCounterService.readStateChanged(ownerEmail, email.getFolder(), Boolean.TRUE.equals(isRead));
+        }
         email.setIsRead(isRead);
-        emailRepository.save(email);
+        mailboxEntryRepository.save(email);
     }
     
     @Transactional
     public void toggleStar(String id, String ownerEmail) {
-        Email email = emailRepository.findById(id)
+        MailboxEntry email = mailboxEntryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
         
         if (!email.getOwnerEmail().equals(ownerEmail)) {
@@ -189,87 +335,295 @@ public class EmailService {
         }
         
         email.setIsStarred(!email.getIsStarred());
-        emailRepository.save(email);
+        mailboxEntryRepository.save(email);
     }
     
     @Transactional
     public void moveToFolder(String id, String ownerEmail, String folderName) {
-        Email email = emailRepository.findById(id)
+        MailboxEntry email = mailboxEntryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
         
         if (!email.getOwnerEmail().equals(ownerEmail)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
         }
         
-        EmailFolder folder = EmailFolder.valueOf(folderName.toUpperCase());
+        EmailFolder folder = moveTarget(folderName);
+        if (TIMED_FOLDERS.contains(email.getFolder()) && email.getFolder() != folder) {
+            emailScheduleService.cancel(id);
+        }
+        mailboxCounterService.entryMoved(ownerEmail, email.getFolder(), folder, Boolean.TRUE.equals(email.getIsRead()));
         email.setFolder(folder);
-        emailRepository.save(email);
+        mailboxEntryRepository.save(email);
     }
     
     @Transactional
-    public void bulkMarkAsRead(String ownerEmail, List<String> ids, Boolean isRead) {
-        for (String id : ids) {
-            try {
-                markAsRead(id, ownerEmail, isRead);
-            } catch (Exception e) {
-                // Continue with other emails
-            }
+    public void cancelScheduledSend(String id, String ownerEmail) {
+        MailboxEntry email = mailboxEntryRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
+        
+        if (!email.getOwnerEmail().equals(ownerEmail)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+        if (email.getFolder() != EmailFolder.SCHEDULED || !emailScheduleService.cancel(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email is not scheduled");
         }
+        
+        // Back to drafts so it can be edited and sent again
+        mailboxCounterService.entryMoved(ownerEmail, EmailFolder.SCHEDULED, EmailFolder.DRAFTS,
+                Boolean.TRUE.equals(email.getIsRead()));
+        email.setFolder(EmailFolder.DRAFTS);
+        mailboxEntryRepository.save(email);
     }
     
     @Transactional
-    public void bulkMoveToFolder(String ownerEmail, List<String> ids, String folder) {
-        for (String id : ids) {
-            try {
-                moveToFolder(id, ownerEmail, folder);
-            } catch (Exception e) {
-                // Continue with other emails
-            }
+    public void snooze(String id, String ownerEmail, LocalDateTime until) {
+        MailboxEntry email = mailboxEntryRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
+        
+        if (!email.getOwnerEmail().equals(ownerEmail)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+        if (!until.isAfter(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Snooze time must be in the future");
+        }
+        if (email.getFolder() == EmailFolder.SCHEDULED || email.getFolder() == EmailFolder.DRAFTS) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email cannot be snoozed");
+        }
+        
+        // Re-snoozing replaces the previous wake-up time; any job left from an earlier snooze goes too
+        emailScheduleService.cancel(id);
+        if (email.getFolder() != EmailFolder.SNOOZED) {
+            mailboxCounterService.entryMoved(ownerEmail, email.getFolder(), EmailFolder.SNOOZED,
+                    Boolean.TRUE.equals(email.getIsRead()));
+            email.setFolder(EmailFolder.SNOOZED);
+            mailboxEntryRepository.save(email);
         }
+        emailScheduleService.schedule(JobType.UNSNOOZE, ownerEmail, id, until);
     }
     
     @Transactional
-    public void bulkDelete(String ownerEmail, List<String> ids) {
-        for (String id : ids) {
-            try {
-                deleteEmail(id, ownerEmail);
-            } catch (Exception e) {
-                // Continue with other emails
+    public BulkOperationResultDto bulkMarkAsRead(String ownerEmail, List<String> ids, Boolean isRead) {
+        boolean read = Boolean.TRUE.equals(isRead);
+        return forEachChunk(ownerEmail, ids, owned -> {
+            CounterDelta delta = new CounterDelta();
+            for (MailboxEntryState state : owned) {
+                if (Boolean.TRUE.equals(state.getIsRead()) != read) {
+                    delta.add(state.getFolder(), 0, read ? -1 : 1);
+                }
+            }
+            List<String> ownedIds = owned.stream().map(MailboxEntryState::getId).toList();
+            mailboxEntryRepository.updateReadState(ownerEmail, ownedIds, read, LocalDateTime.now());
+            mailboxCounterService.apply(ownerEmail, delta);
+            mailboxNotifier.mailboxChanged(ownerEmail, new MailboxChangeEvent(read ? "READ" : "UNREAD", ownedIds, null, null));
+        });
+    }
+    
+    @Transactional
+    public BulkOperationResultDto bulkMoveToFolder(String ownerEmail, List<String> ids, String folderName) {
+        EmailFolder folder = moveTarget(folderName);
+        return forEachChunk(ownerEmail, ids, owned -> {
+            CounterDelta delta = new CounterDelta();
+            List<String> leavingTimed = new ArrayList<>();
+            for (MailboxEntryState state : owned) {
+                if (TIMED_FOLDERS.contains(state.getFolder())) {
+                    leavingTimed.add(state.getId());
+                }
+                if (state.getFolder() != folder) {
+                    long unread = Boolean.TRUE.equals(state.getIsRead()) ? 0 : 1;
+                    delta.add(state.getFolder(), -1, -unread);
+                    delta.add(folder, 1, unread);
+                }
+            }
+            List<String> ownedIds = owned.stream().map(MailboxEntryState::getId).toList();
+            emailScheduleService.cancelAll(leavingTimed);
+            mailboxEntryRepository.updateFolder(ownerEmail, ownedIds, folder, LocalDateTime.now());
+            mailboxCounterService.apply(ownerEmail, delta);
+            mailboxNotifier.mailboxChanged(ownerEmail,
+                    new MailboxChangeEvent("MOVED", ownedIds, folder.name().toLowerCase(), null));
+        });
+    }
+    
+    @Transactional
+    public BulkOperationResultDto bulkDelete(String ownerEmail, List<String> ids) {
+        return forEachChunk(ownerEmail, ids, owned -> {
+            CounterDelta delta = new CounterDelta();
+            Set<String> messageIds = new HashSet<>();
+            List<String> timed = new ArrayList<>();
+            for (MailboxEntryState state : owned) {
+                delta.add(state.getFolder(), -1, Boolean.TRUE.equals(state.getIsRead()) ? 0 : -1);
+                messageIds.add(state.getMessageId());
+                if (TIMED_FOLDERS.contains(state.getFolder())) {
+                    timed.add(state.getId());
+                }
+            }
+            List<String> ownedIds = owned.stream().map(MailboxEntryState::getId).toList();
+            emailScheduleService.cancelAll(timed);
+            mailboxEntryRepository.deleteLabelsByEntryIdIn(ownedIds);
+            mailboxEntryRepository.deleteByOwnerEmailAndIdIn(ownerEmail, ownedIds);
+            
+            // Shared content goes once nothing references it any more
+            List<String> unreferenced = emailMessageRepository.findUnreferencedIds(messageIds, ACTIVE_OUTBOX_STATUSES);
+            if (!unreferenced.isEmpty()) {
+                List<String> blobs = emailAttachmentService.findBlobHashes(unreferenced);
+                emailMessageRepository.deleteAttachmentsByMessageIdIn(unreferenced);
+                emailMessageRepository.deleteByIdIn(unreferenced);
+                emailAttachmentService.releaseBlobsAfterCommit(blobs);
+            }
+            
+            mailboxCounterService.apply(ownerEmail, delta);
+            mailboxNotifier.mailboxChanged(ownerEmail, new MailboxChangeEvent("DELETED", ownedIds, null, null));
+        });
+    }
+    
+    @Transactional
+    public BulkOperationResultDto bulkAddLabel(String ownerEmail, List<String> ids, String label) {
+        String normalized = normalizeLabel(label);
+        return forEachChunk(ownerEmail, ids, owned -> {
+            List<String> ownedIds = owned.stream().map(MailboxEntryState::getId).toList();
+            mailboxLabelRepository.addLabel(ownerEmail, ownedIds, normalized);
+            mailboxNotifier.mailboxChanged(ownerEmail, new MailboxChangeEvent("LABELED", ownedIds, null, normalized));
+        });
+    }
+    
+    @Transactional
+    public BulkOperationResultDto bulkRemoveLabel(String ownerEmail, List<String> ids, String label) {
+        String normalized = normalizeLabel(label);
+        return forEachChunk(ownerEmail, ids, owned -> {
+            List<String> ownedIds = owned.stream().map(MailboxEntryState::getId).toList();
+            mailboxLabelRepository.removeLabel(ownerEmail, ownedIds, normalized);
+            mailboxNotifier.mailboxChanged(ownerEmail, new MailboxChangeEvent("UNLABELED", ownedIds, null, normalized));
+        });
+    }
+    
+    // Scheduled and Snoozed need a due time, so they are only reachable through a scheduled sendEmail and snooze
+    private EmailFolder moveTarget(String folderName) {
+        EmailFolder folder = EmailFolder.valueOf(folderName.toUpperCase());
+        if (TIMED_FOLDERS.contains(folder)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot move email to " + folderName.toLowerCase());
+        }
+        return folder;
+    }
+    
+    private String normalizeLabel(String label) {
+        String normalized = label == null ? "" : label.trim();
+        if (normalized.isEmpty() || normalized.length() > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Label must be 1-100 characters");
+        }
+        return normalized;
+    }
+    
+    /**
+     * Picks the thread for a new message: the parent's thread when replying to an email in the
+     * sender's own mailbox, otherwise the latest thread with the same normalized subject when the
+     * subject carries a reply prefix, otherwise a fresh thread (assigned on persist).
+     */
+    private ThreadLink resolveThread(String ownerEmail, EmailComposeRequest request) {
+        if (request.getInReplyTo() != null && !request.getInReplyTo().isBlank()) {
+            MailboxEntry parent = mailboxEntryRepository.findById(request.getInReplyTo())
+                    .filter(entry -> entry.getOwnerEmail().equals(ownerEmail))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
+            EmailMessage parentMessage = parent.getMessage();
+            String threadId = parentMessage.getThreadId() != null ? parentMessage.getThreadId() : parent.getThreadId();
+            return new ThreadLink(threadId, parentMessage.getId());
+        }
+        
+        String subject = request.getSubject() == null ? "" : request.getSubject().trim().replaceAll("\\s+", " ");
+        String normalized = EmailMessage.normalizeSubject(subject);
+        if (!normalized.isEmpty() && !normalized.equalsIgnoreCase(subject)) {
+            List<String> existing = mailboxEntryRepository.findLatestThreadIdBySubject(ownerEmail, normalized, PageRequest.of(0, 1));
+            if (!existing.isEmpty()) {
+                return new ThreadLink(existing.get(0), null);
             }
         }
+        return new ThreadLink(null, null);
+    }
+    
+    private record ThreadLink(String threadId, String parentMessageId) {
+    }
+    
+    /**
+     * Splits {@code ids} into IN-list sized chunks, resolves which ones the owner actually has
+     * with one query per chunk, and hands the owned rows to {@code operation}. Everything else
+     * is reported back as not found instead of being silently skipped.
+     */
+    private BulkOperationResultDto forEachChunk(String ownerEmail, List<String> ids,
+                                                Consumer<List<MailboxEntryState>> operation) {
+        BulkOperationResultDto result = new BulkOperationResultDto();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size()));
+            List<MailboxEntryState> owned = mailboxEntryRepository.findStates(ownerEmail, chunk);
+            
+            Set<String> ownedIds = new HashSet<>();
+            owned.forEach(state -> ownedIds.add(state.getId()));
+            for (String id : chunk) {
+                (ownedIds.contains(id) ? result.getSucceeded() : result.getNotFound()).add(id);
+            }
+            
+            if (!owned.isEmpty()) {
+                operation.accept(owned);
+            }
+        }
+        return result;
     }
     
     @Transactional
     public void deleteEmail(String id, String ownerEmail) {
-        Email email = emailRepository.findById(id)
+        MailboxEntry email = mailboxEntryRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
         
         if (!email.getOwnerEmail().equals(ownerEmail)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
         }
         
-        emailRepository.delete(email);
+        String messageId = email.getMessage().getId();
+        if (TIMED_FOLDERS.contains(email.getFolder())) {
+            emailScheduleService.cancel(id);
+        }
+        mailboxEntryRepository.delete(email);
+        mailboxCounterService.entryRemoved(ownerEmail, email.getFolder(), Boolean.TRUE.equals(email.getIsRead()));
+        mailboxEntryRepository.flush();
+        
+        // The content is shared, so only drop it once no mailbox references it anymore
+        if (!mailboxEntryRepository.existsByMessage_Id(messageId)
+                && !emailOutboxRepository.existsByMessageIdAndStatusIn(messageId, ACTIVE_OUTBOX_STATUSES)) {
+            List<String> blobs = emailAttachmentService.findBlobHashes(List.of(messageId));
+            emailMessageRepository.deleteById(messageId);
+            emailAttachmentService.releaseBlobsAfterCommit(blobs);
+        }
     }
     
     public Map<String, Long> getEmailCounts(String ownerEmail) {
         Map<String, Long> counts = new HashMap<>();
         
-        for (EmailFolder folder : EmailFolder.values()) {
-            Long unreadCount = emailRepository.countUnreadByFolder(ownerEmail, folder);
-            if (unreadCount > 0) {
-                counts.put(folder.name().toLowerCase(), unreadCount);
+        mailboxCounterService.getCounts(ownerEmail).forEach((folder, count) -> {
+            if (count.getUnread() > 0) {
+                counts.put(folder.name().toLowerCase(), count.getUnread());
             }
-        }
+        });
         
         return counts;
     }
     
+    public Map<String, EmailFolderCountDto> getFolderCounts(String ownerEmail) {
+        Map<String, EmailFolderCountDto> counts = new LinkedHashMap<>();
+        mailboxCounterService.getCounts(ownerEmail)
+                .forEach((folder, count) -> counts.put(folder.name().toLowerCase(), count));
+        return counts;
+    }
+    
+    @Transactional(readOnly = true)
     public List<EmailDto> getAllEmailsForDebug(String ownerEmail) {
-        List<Email> allEmails = emailRepository.findByOwnerEmailOrderBySentAtDesc(ownerEmail);
+        List<MailboxEntry> allEmails = mailboxEntryRepository.findByOwnerEmailOrderBySentAtDesc(ownerEmail);
         System.out.println("🔍 DEBUG: Found " + allEmails.size() + " emails for " + ownerEmail);
-        for (Email email : allEmails) {
-            System.out.println("  - From: " + email.getFrom() + " | Subject: " + email.getSubject() + 
-                             " | Folder: " + email.getFolder() + " | To: " + email.getTo());
+        for (MailboxEntry email : allEmails) {
+            EmailMessage message = email.getMessage();
+            System.out.println("  - From: " + message.getFrom() + " | Subject: " + message.getSubject() + 
+                             " | Folder: " + email.getFolder() + " | To: " + message.getTo());
         }
         return allEmails.stream()
                 .map(emailMapper::toDto)
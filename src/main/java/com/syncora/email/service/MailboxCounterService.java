@@ -0,0 +1,171 @@
+package com.syncora.email.service;
+
+import com.syncora.email.dto.EmailFolderCountDto;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import com.syncora.email.repository.FolderCount;
+import com.syncora.email.repository.MailboxEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory unread/total counters per mailbox folder. A miss loads all folders with one
+ * grouped query; after that the counters are adjusted by the write paths, so badge polling
+ * never touches mailbox_entry. Deltas are applied after commit, and entries expire after
+ * {@code email.counters.ttl-seconds} so any drift heals itself.
+ */
+@Service
+@Slf4j
+public class MailboxCounterService {
+    
+    private static final EmailFolder[] FOLDERS = EmailFolder.values();
+    
+    private final MailboxEntryRepository mailboxEntryRepository;
+    private final long ttlMillis;
+    private final Map<String, Counters> countersByOwner = new ConcurrentHashMap<>();
+    
+    public MailboxCounterService(MailboxEntryRepository mailboxEntryRepository,
+                                 @Value("${email.counters.ttl-seconds:300}") long ttlSeconds) {
+        this.mailboxEntryRepository = mailboxEntryRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+    
+    public Map<EmailFolder, EmailFolderCountDto> getCounts(String ownerEmail) {
+        long now = System.currentTimeMillis();
+        Counters counters = countersByOwner.get(ownerEmail);
+        if (counters == null || counters.isExpired(now, ttlMillis)) {
+            counters = load(ownerEmail, now);
+            countersByOwner.put(ownerEmail, counters);
+        }
+        return counters.snapshot();
+    }
+    
+    /** A new entry landed in {@code folder}. */
+    public void entryAdded(String ownerEmail, EmailFolder folder, boolean isRead) {
+        afterCommit(ownerEmail, counters -> counters.add(folder, 1, isRead ? 0 : 1));
+    }
+    
+    public void entryRemoved(String ownerEmail, EmailFolder folder, boolean isRead) {
+        afterCommit(ownerEmail, counters -> counters.add(folder, -1, isRead ? 0 : -1));
+    }
+    
+    public void entryMoved(String ownerEmail, EmailFolder from, EmailFolder to, boolean isRead) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(ownerEmail, counters -> {
+            counters.add(from, -1, isRead ? 0 : -1);
+            counters.add(to, 1, isRead ? 0 : 1);
+        });
+    }
+    
+    public void readStateChanged(String ownerEmail, EmailFolder folder, boolean nowRead) {
+        afterCommit(ownerEmail, counters -> counters.add(folder, 0, nowRead ? -1 : 1));
+    }
+    
+    /** Applies a whole batch of changes with one after-commit hook. */
+    public void apply(String ownerEmail, CounterDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        afterCommit(ownerEmail, counters -> {
+            for (EmailFolder folder : FOLDERS) {
+                int i = folder.ordinal();
+                if (delta.total[i] != 0 || delta.unread[i] != 0) {
+                    counters.add(folder, delta.total[i], delta.unread[i]);
+                }
+            }
+        });
+    }
+    
+    public void evict(String ownerEmail) {
+        countersByOwner.remove(ownerEmail);
+    }
+    
+    @Scheduled(fixedDelayString = "${email.counters.sweep-interval-ms:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        countersByOwner.values().removeIf(counters -> counters.isExpired(now, ttlMillis));
+    }
+    
+    private Counters load(String ownerEmail, long now) {
+        Counters counters = new Counters(now);
+        for (FolderCount row : mailboxEntryRepository.countByFolder(ownerEmail)) {
+            counters.add(row.getFolder(), row.getTotal(), row.getUnread() != null ? row.getUnread() : 0);
+        }
+        return counters;
+    }
+    
+    // Only mailboxes already in memory are adjusted; anything else is loaded fresh on next read
+    private void afterCommit(String ownerEmail, Consumer<Counters> delta) {
+        Runnable apply = () -> {
+            Counters counters = countersByOwner.get(ownerEmail);
+            if (counters != null) {
+                delta.accept(counters);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+    
+    /** Accumulated per-folder changes from one bulk batch. */
+    public static final class CounterDelta {
+        private final long[] total = new long[FOLDERS.length];
+        private final long[] unread = new long[FOLDERS.length];
+        private boolean empty = true;
+        
+        public void add(EmailFolder folder, long totalDelta, long unreadDelta) {
+            total[folder.ordinal()] += totalDelta;
+            unread[folder.ordinal()] += unreadDelta;
+            empty = false;
+        }
+        
+        boolean isEmpty() {
+            return empty;
+        }
+    }
+    
+    private static final class Counters {
+        private final long loadedAt;
+        private final long[] total = new long[FOLDERS.length];
+        private final long[] unread = new long[FOLDERS.length];
+        
+        Counters(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+        
+        boolean isExpired(long now, long ttlMillis) {
+            return now - loadedAt > ttlMillis;
+        }
+        
+        synchronized void add(EmailFolder folder, long totalDelta, long unreadDelta) {
+            int i = folder.ordinal();
+            total[i] = Math.max(0, total[i] + totalDelta);
+            unread[i] = Math.max(0, unread[i] + unreadDelta);
+        }
+        
+        synchronized Map<EmailFolder, EmailFolderCountDto> snapshot() {
+            Map<EmailFolder, EmailFolderCountDto> result = new EnumMap<>(EmailFolder.class);
+            for (EmailFolder folder : FOLDERS) {
+                result.put(folder, new EmailFolderCountDto(unread[folder.ordinal()], total[folder.ordinal()]));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.syncora.email.service;
+
+import com.syncora.email.dto.MailboxChangeEvent;
+import com.syncora.email.dto.NewEmailNotification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * STOMP pushes for mailbox events. Messages are sent after the surrounding transaction
+ * commits so clients never see a change that was rolled back. They go to the owner's user
+ * queues ({@code /user/queue/email} and {@code /user/queue/email/changes}). The broker resolves
+ * those per session, and {@link com.syncora.config.WebSocketSecurityConfig} only lets sessions
+ * with a principal subscribe to them and refuses direct subscriptions to the resolved
+ * destinations, so only the owner's sessions receive them.
+ */
+@Component
+@Slf4j
+public class MailboxNotifier {
+    
+    @Autowired(required = false)
+    @Lazy
+    private SimpMessagingTemplate simpMessagingTemplate;
+    
+    public void newEmail(NewEmailNotification notification) {
+        send(notification.ownerEmail(), "/queue/email", notification);
+    }
+    
+    public void mailboxChanged(String ownerEmail, MailboxChangeEvent event) {
+        send(ownerEmail, "/queue/email/changes", event);
+    }
+    
+    private void send(String ownerEmail, String destination, Object payload) {
+        if (simpMessagingTemplate == null) {
+            return;
+        }
+        Runnable push = () -> {
+            try {
+                simpMessagingTemplate.convertAndSendToUser(ownerEmail, destination, payload);
+            } catch (Exception e) {
+                log.debug("Could not push mailbox event to {} for {}: {}", destination, ownerEmail, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push.run();
+                }
+            });
+        } else {
+            push.run();
+        }
+    }
+}
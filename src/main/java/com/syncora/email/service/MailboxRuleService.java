@@ -0,0 +1,111 @@
+package com.syncora.email.service;
+
+import com.syncora.email.dto.MailboxRuleDto;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import com.syncora.email.entity.MailboxRule;
+import com.syncora.email.entity.MailboxRule.RuleField;
+import com.syncora.email.repository.MailboxRuleRepository;
+import com.syncora.email.rules.MailboxRuleEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class MailboxRuleService {
+    
+    private final MailboxRuleRepository mailboxRuleRepository;
+    private final MailboxRuleEngine mailboxRuleEngine;
+    
+    @Transactional(readOnly = true)
+    public List<MailboxRuleDto> getRules(String ownerEmail) {
+        return mailboxRuleRepository.findByOwnerEmailOrderByPositionAscCreatedAtAsc(ownerEmail).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public MailboxRuleDto createRule(String ownerEmail, MailboxRuleDto request) {
+        MailboxRule rule = MailboxRule.builder()
+                .ownerEmail(ownerEmail)
+                .build();
+        apply(rule, request);
+        mailboxRuleRepository.save(rule);
+        invalidateAfterCommit(ownerEmail);
+        return toDto(rule);
+    }
+    
+    @Transactional
+    public MailboxRuleDto updateRule(String ownerEmail, String id, MailboxRuleDto request) {
+        MailboxRule rule = mailboxRuleRepository.findByIdAndOwnerEmail(id, ownerEmail)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rule not found"));
+        apply(rule, request);
+        mailboxRuleRepository.save(rule);
+        invalidateAfterCommit(ownerEmail);
+        return toDto(rule);
+    }
+    
+    @Transactional
+    public void deleteRule(String ownerEmail, String id) {
+        MailboxRule rule = mailboxRuleRepository.findByIdAndOwnerEmail(id, ownerEmail)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rule not found"));
+        mailboxRuleRepository.delete(rule);
+        invalidateAfterCommit(ownerEmail);
+    }
+    
+    private void apply(MailboxRule rule, MailboxRuleDto request) {
+        try {
+            rule.setField(RuleField.valueOf(request.getField().toUpperCase()));
+            rule.setTargetFolder(request.getTargetFolder() == null || request.getTargetFolder().isBlank()
+                    ? null
+                    : EmailFolder.valueOf(request.getTargetFolder().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown rule field or folder");
+        }
+        boolean hasLabel = request.getAddLabel() != null && !request.getAddLabel().isBlank();
+        if (rule.getTargetFolder() == null && !hasLabel && !Boolean.TRUE.equals(request.getMarkAsRead())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A rule needs at least one action");
+        }
+        
+        rule.setValue(request.getValue().trim());
+        rule.setAddLabel(hasLabel ? request.getAddLabel().trim() : null);
+        rule.setMarkAsRead(Boolean.TRUE.equals(request.getMarkAsRead()));
+        if (request.getPosition() != null) {
+            rule.setPosition(request.getPosition());
+        }
+        if (request.getEnabled() != null) {
+            rule.setEnabled(request.getEnabled());
+        }
+    }
+    
+    // Recompiling before commit could cache the old rules again
+    private void invalidateAfterCommit(String ownerEmail) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mailboxRuleEngine.invalidate(ownerEmail);
+            }
+        });
+    }
+    
+    private MailboxRuleDto toDto(MailboxRule rule) {
+        return MailboxRuleDto.builder()
+                .id(rule.getId())
+                .field(rule.getField().name().toLowerCase())
+                .value(rule.getValue())
+                .targetFolder(rule.getTargetFolder() != null ? rule.getTargetFolder().name().toLowerCase() : null)
+                .addLabel(rule.getAddLabel())
+                .markAsRead(rule.getMarkAsRead())
+                .position(rule.getPosition())
+                .enabled(rule.getEnabled())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+}
@@ -7,6 +7,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "notes", indexes = {
@@ -61,6 +62,25 @@ public class Note {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Bumped on every write; clients send it back as the base of a patch
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long version = 0L;
+
+    // Bumped only when the content changes; collaboration checkpoints conflict on this, so
+    // starring, archiving, tagging or renaming a note never drops unsaved collaborative edits
+    @Column(name = "content_version", nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long contentVersion = 0L;
+
+    public void setContent(String content) {
+        if (!Objects.equals(this.content, content)) {
+            this.content = content;
+            this.contentVersion = contentVersion + 1;
+        }
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
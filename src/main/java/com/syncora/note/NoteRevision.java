@@ -0,0 +1,64 @@
+package com.syncora.note;
+
+import com.syncora.note.dto.TextOperation;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One entry in a note's history. A snapshot holds the full content; every other revision holds
+ * only the operations that turn the previous revision's content into this one. {@code depth}
+ * counts deltas since the last snapshot and is capped, so any revision is rebuilt from one
+ * snapshot plus a bounded number of deltas.
+ */
+@Entity
+@Table(name = "note_revisions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_note_revision_version", columnNames = {"note_id", "version"}),
+        indexes = @Index(name = "idx_note_revision_owner", columnList = "owner_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteRevision {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "note_id", nullable = false, length = 36)
+    private String noteId;
+
+    @Column(name = "owner_id", nullable = false, length = 36)
+    private String ownerId;
+
+    // Note version this revision reproduces
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    // Snapshots only
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    // Deltas only
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<TextOperation> delta;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,144 @@
+package com.syncora.note.collab;
+
+import com.syncora.note.collab.CollabMessages.AppliedOperation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory state of a note while a collaboration session is open. All access goes through
+ * the instance lock; operations are applied in arrival order and each one bumps the revision.
+ * {@code contentVersion} is the {@code notes.content_version} the content is based on, so a
+ * checkpoint can tell whether the content was written outside the session in the meantime.
+ */
+final class CollabDocument {
+
+    final String noteId;
+    final String ownerEmail;
+    // Checkpoints run outside the instance lock so they never stall edits; this one keeps
+    // two of them (scheduled pass and last editor leaving) from racing on contentVersion
+    final Object checkpointLock = new Object();
+    private final int maxHistory;
+
+    private String title;
+    private String content;
+    private long contentVersion;
+    private long revision;
+    private long checkpointedRevision;
+    private final ArrayDeque<AppliedOperation> history = new ArrayDeque<>();
+    private final List<AppliedOperation> unsent = new ArrayList<>();
+    private final Set<String> sessions = new HashSet<>();
+
+    CollabDocument(String noteId, String ownerEmail, String title, String content, long contentVersion, int maxHistory) {
+        this.noteId = noteId;
+        this.ownerEmail = ownerEmail;
+        this.title = title;
+        this.content = content != null ? content : "";
+        this.contentVersion = contentVersion;
+        this.maxHistory = maxHistory;
+    }
+
+    synchronized CollabMessages.DocumentState state() {
+        return new CollabMessages.DocumentState(noteId, revision, title, content);
+    }
+
+    /**
+     * Transforms {@code op} past everything applied since {@code baseRevision} and applies it.
+     *
+     * @throws StaleRevisionException when the base is older than the retained history
+     */
+    synchronized AppliedOperation apply(String clientId, long baseRevision, TextOp op) {
+        if (baseRevision > revision) {
+            throw new IllegalArgumentException("Base revision " + baseRevision + " is ahead of " + revision);
+        }
+        if (revision - baseRevision > history.size()) {
+            throw new StaleRevisionException(revision);
+        }
+        TextOp transformed = op;
+        for (AppliedOperation applied : history) {
+            if (applied.revision() > baseRevision) {
+                transformed = TextOp.transform(transformed, applied.op())[0];
+            }
+        }
+        content = transformed.apply(content);
+        revision++;
+
+        AppliedOperation result = new AppliedOperation(revision, clientId, transformed);
+        history.addLast(result);
+        if (history.size() > maxHistory) {
+            history.removeFirst();
+        }
+        unsent.add(result);
+        return result;
+    }
+
+    synchronized List<AppliedOperation> drainUnsent() {
+        if (unsent.isEmpty()) {
+            return List.of();
+        }
+        List<AppliedOperation> batch = new ArrayList<>(unsent);
+        unsent.clear();
+        return batch;
+    }
+
+    /** Content to persist, or null when nothing changed since the last checkpoint. */
+    synchronized Checkpoint pendingCheckpoint() {
+        return revision == checkpointedRevision ? null : new Checkpoint(content, revision, contentVersion);
+    }
+
+    synchronized void markCheckpointed(long checkpointRevision, long savedContentVersion) {
+        checkpointedRevision = Math.max(checkpointedRevision, checkpointRevision);
+        contentVersion = savedContentVersion;
+    }
+
+    synchronized long contentVersion() {
+        return contentVersion;
+    }
+
+    /**
+     * Replaces the content with what is stored now, dropping edits not yet checkpointed. The
+     * revision still moves forward and the history is cleared, so operations based on the old
+     * content are rejected as stale instead of being applied to the new one.
+     */
+    synchronized void reset(String storedTitle, String storedContent, long storedContentVersion) {
+        title = storedTitle;
+        content = storedContent != null ? storedContent : "";
+        contentVersion = storedContentVersion;
+        revision++;
+        checkpointedRevision = revision;
+        history.clear();
+        unsent.clear();
+    }
+
+    /** Forgets unsaved edits, e.g. once the note itself is gone. */
+    synchronized void discardChanges() {
+        checkpointedRevision = revision;
+        unsent.clear();
+    }
+
+    synchronized void join(String sessionId) {
+        sessions.add(sessionId);
+    }
+
+    /** Returns true when the last session left. */
+    synchronized boolean leave(String sessionId) {
+        sessions.remove(sessionId);
+        return sessions.isEmpty();
+    }
+
+    synchronized boolean isIdle() {
+        return sessions.isEmpty();
+    }
+
+    record Checkpoint(String content, long revision, long contentVersion) {
+    }
+
+    static final class StaleRevisionException extends RuntimeException {
+        StaleRevisionException(long currentRevision) {
+            super("Base revision too old, document is at " + currentRevision);
+        }
+    }
+}
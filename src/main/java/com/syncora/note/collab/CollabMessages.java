@@ -0,0 +1,36 @@
+package com.syncora.note.collab;
+
+import java.util.List;
+
+/**
+ * Wire messages of the collaborative editing protocol.
+ * <ol>
+ *   <li>Subscribe to {@code /topic/notes/{id}} for batches, then to {@code /app/notes/{id}} to
+ *       receive the current {@link DocumentState}. Ignore batch entries at or below its revision.</li>
+ *   <li>Send {@link ClientOperation}s to {@code /app/notes/{id}/ops}, one outstanding at a time,
+ *       with the last revision seen as the base. Your own op comes back in a batch as its ack.</li>
+ *   <li>Errors go to {@code /user/queue/notes/errors}; on {@code RESYNC} re-fetch the state,
+ *       on {@code CLOSED} the note was deleted and the session is gone.</li>
+ * </ol>
+ */
+public final class CollabMessages {
+
+    private CollabMessages() {
+    }
+
+    public record DocumentState(String noteId, long revision, String title, String content) {
+    }
+
+    public record ClientOperation(String clientId, long baseRevision, TextOp op) {
+    }
+
+    public record AppliedOperation(long revision, String clientId, TextOp op) {
+    }
+
+    /** Everything applied to a document during one broadcast tick, in revision order. */
+    public record OperationBatch(String noteId, List<AppliedOperation> ops) {
+    }
+
+    public record CollabError(String noteId, String code, String message) {
+    }
+}
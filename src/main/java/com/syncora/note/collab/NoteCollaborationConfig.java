@@ -0,0 +1,21 @@
+package com.syncora.note.collab;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Adds the note collaboration endpoint to the shared STOMP broker. Sessions are authenticated
+ * and subscriptions authorized by {@link com.syncora.config.WebSocketSecurityConfig}; the rule
+ * for note topics is {@link NoteSubscriptionGuard}.
+ */
+@Configuration
+public class NoteCollaborationConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws/notes")
+                .setAllowedOriginPatterns("*")
+                .withSockJS();
+    }
+}
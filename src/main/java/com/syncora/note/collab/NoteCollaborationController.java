@@ -0,0 +1,72 @@
+package com.syncora.note.collab;
+
+import com.syncora.note.collab.CollabMessages.ClientOperation;
+import com.syncora.note.collab.CollabMessages.CollabError;
+import com.syncora.note.collab.CollabMessages.DocumentState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class NoteCollaborationController {
+
+    private final NoteCollaborationService collaborationService;
+
+    // Subscribing to /app/notes/{noteId} joins the session and returns the current document once
+    @SubscribeMapping("/notes/{noteId}")
+    public DocumentState join(@DestinationVariable String noteId, Principal principal,
+                              SimpMessageHeaderAccessor headers) {
+        return collaborationService.join(noteId, requireUser(principal), headers.getSessionId());
+    }
+
+    @MessageMapping("/notes/{noteId}/ops")
+    public void submit(@DestinationVariable String noteId, @Payload ClientOperation operation,
+                       Principal principal) {
+        collaborationService.submit(noteId, requireUser(principal), operation);
+    }
+
+    @MessageMapping("/notes/{noteId}/leave")
+    public void leave(@DestinationVariable String noteId, SimpMessageHeaderAccessor headers) {
+        collaborationService.leave(noteId, headers.getSessionId());
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/notes/errors", broadcast = false)
+    public CollabError handleError(Exception e, SimpMessageHeaderAccessor headers) {
+        String noteId = noteIdOf(headers.getDestination());
+        if (e instanceof CollabDocument.StaleRevisionException) {
+            return new CollabError(noteId, "RESYNC", e.getMessage());
+        }
+        log.debug("Rejected collaboration message for note {}: {}", noteId, e.getMessage());
+        return new CollabError(noteId, "REJECTED", e.getMessage());
+    }
+
+    // Destinations look like /app/notes/{noteId} or /app/notes/{noteId}/ops
+    private static String noteIdOf(String destination) {
+        int start = destination != null ? destination.indexOf("/notes/") : -1;
+        if (start < 0) {
+            return null;
+        }
+        String rest = destination.substring(start + "/notes/".length());
+        int end = rest.indexOf('/');
+        return end < 0 ? rest : rest.substring(0, end);
+    }
+
+    private static String requireUser(Principal principal) {
+        if (principal == null) {
+            throw new IllegalStateException("Authentication required");
+        }
+        return principal.getName();
+    }
+}
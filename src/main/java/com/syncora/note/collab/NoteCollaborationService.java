@@ -0,0 +1,225 @@
+package com.syncora.note.collab;
+
+import com.syncora.common.exception.ConflictException;
+import com.syncora.common.exception.ResourceNotFoundException;
+import com.syncora.note.collab.CollabMessages.AppliedOperation;
+import com.syncora.note.collab.CollabMessages.ClientOperation;
+import com.syncora.note.collab.CollabMessages.CollabError;
+import com.syncora.note.collab.CollabMessages.DocumentState;
+import com.syncora.note.collab.CollabMessages.OperationBatch;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server side of collaborative note editing. While anyone has a note open its content lives
+ * in a {@link CollabDocument}; incoming operations are transformed against concurrent ones and
+ * applied in memory. Every tick the operations applied since the last tick go out as one
+ * batch per note, and dirty documents are written back to {@code notes} on a slower schedule
+ * and when the last editor leaves, so keystrokes never hit the database directly.
+ * <p>
+ * A write-back only succeeds if the note's content is still at the version the session loaded.
+ * When the content was changed through the REST API in the meantime, that write wins like any
+ * other conflicting update: the session reloads the stored note and tells its editors to resync.
+ * Metadata-only writes (star, archive, tags, title) do not touch the content version.
+ */
+@Service
+@Slf4j
+public class NoteCollaborationService {
+
+    private static final String TOPIC_PREFIX = "/topic/notes/";
+    private static final String ERROR_QUEUE = "/queue/notes/errors";
+
+    private final NoteSessionStore sessionStore;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxHistory;
+    private final Map<String, CollabDocument> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> notesBySession = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    public NoteCollaborationService(NoteSessionStore sessionStore,
+                                    SimpMessagingTemplate messagingTemplate,
+                                    @Value("${notes.collab.tick-ms:50}") long tickMillis,
+                                    @Value("${notes.collab.max-history:1000}") int maxHistory) {
+        this.sessionStore = sessionStore;
+        this.messagingTemplate = messagingTemplate;
+        this.maxHistory = maxHistory;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "note-collab-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::broadcastPending, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public DocumentState join(String noteId, String email, String sessionId) {
+        while (true) {
+            CollabDocument document = documents.computeIfAbsent(noteId, id -> {
+                NoteSessionStore.StoredNote stored = sessionStore.load(id, email);
+                return new CollabDocument(id, email, stored.title(), stored.content(), stored.contentVersion(), maxHistory);
+            });
+            if (!document.ownerEmail.equals(email)) {
+                throw new IllegalArgumentException("Note not found with id: " + noteId);
+            }
+            document.join(sessionId);
+            // Lost a race with the last editor leaving: that document was evicted, load afresh
+            if (documents.get(noteId) != document) {
+                continue;
+            }
+            notesBySession.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet()).add(noteId);
+            return document.state();
+        }
+    }
+
+    public AppliedOperation submit(String noteId, String email, ClientOperation operation) {
+        CollabDocument document = documents.get(noteId);
+        if (document == null || !document.ownerEmail.equals(email)) {
+            throw new IllegalStateException("Join note " + noteId + " before sending operations");
+        }
+        return document.apply(operation.clientId(), operation.baseRevision(), operation.op());
+    }
+
+    public boolean canSubscribe(String noteId, String email) {
+        CollabDocument document = documents.get(noteId);
+        return document != null ? document.ownerEmail.equals(email) : sessionStore.canAccess(noteId, email);
+    }
+
+    public void leave(String noteId, String sessionId) {
+        Set<String> notes = notesBySession.get(sessionId);
+        if (notes != null) {
+            notes.remove(noteId);
+        }
+        CollabDocument document = documents.get(noteId);
+        if (document != null && document.leave(sessionId)) {
+            close(document);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Set<String> notes = notesBySession.remove(event.getSessionId());
+        if (notes != null) {
+            notes.forEach(noteId -> leave(noteId, event.getSessionId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notes.collab.checkpoint-interval-ms:5000}")
+    public void checkpointDirty() {
+        for (CollabDocument document : documents.values()) {
+            if (document.pendingCheckpoint() != null) {
+                checkpoint(document);
+            } else {
+                // Nothing to write, but the editors may be looking at content replaced elsewhere
+                resyncIfChangedElsewhere(document);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        documents.values().forEach(this::checkpoint);
+    }
+
+    private void broadcastPending() {
+        for (CollabDocument document : documents.values()) {
+            List<AppliedOperation> ops = document.drainUnsent();
+            if (ops.isEmpty()) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(TOPIC_PREFIX + document.noteId, new OperationBatch(document.noteId, ops));
+            } catch (Exception e) {
+                log.warn("Could not broadcast {} ops for note {}: {}", ops.size(), document.noteId, e.getMessage());
+            }
+        }
+    }
+
+    private void close(CollabDocument document) {
+        checkpoint(document);
+        // Someone may have joined while the checkpoint ran; keep the document for them
+        documents.computeIfPresent(document.noteId, (id, current) -> current == document && current.isIdle() ? null : current);
+        if (documents.get(document.noteId) != document) {
+            // Evicted: make sure edits that raced with the checkpoint are not lost
+            checkpoint(document);
+        }
+    }
+
+    private void checkpoint(CollabDocument document) {
+        synchronized (document.checkpointLock) {
+            CollabDocument.Checkpoint pending = document.pendingCheckpoint();
+            if (pending == null) {
+                return;
+            }
+            try {
+                long savedVersion = sessionStore.checkpoint(document.noteId, pending.content(), pending.contentVersion());
+                document.markCheckpointed(pending.revision(), savedVersion);
+            } catch (ConflictException e) {
+                log.warn("Note {} was changed outside its collaboration session, dropping unsaved edits: {}",
+                        document.noteId, e.getMessage());
+                resync(document);
+            } catch (ResourceNotFoundException e) {
+                evict(document);
+            } catch (Exception e) {
+                // Stays dirty, so the next checkpoint retries
+                log.error("Checkpoint of note {} failed", document.noteId, e);
+            }
+        }
+    }
+
+    private void resyncIfChangedElsewhere(CollabDocument document) {
+        synchronized (document.checkpointLock) {
+            try {
+                Long version = sessionStore.currentContentVersion(document.noteId);
+                if (version == null) {
+                    evict(document);
+                } else if (version != document.contentVersion()) {
+                    resync(document);
+                }
+            } catch (Exception e) {
+                log.warn("Could not check note {} for outside changes: {}", document.noteId, e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds the checkpoint lock
+    private void resync(CollabDocument document) {
+        NoteSessionStore.StoredNote stored;
+        try {
+            stored = sessionStore.load(document.noteId, document.ownerEmail);
+        } catch (ResourceNotFoundException e) {
+            evict(document);
+            return;
+        }
+        document.reset(stored.title(), stored.content(), stored.contentVersion());
+        notifyEditors(document, "RESYNC", "Note was changed elsewhere, fetch it again");
+    }
+
+    private void evict(CollabDocument document) {
+        document.discardChanges();
+        documents.remove(document.noteId, document);
+        notifyEditors(document, "CLOSED", "Note no longer exists");
+    }
+
+    private void notifyEditors(CollabDocument document, String code, String message) {
+        try {
+            messagingTemplate.convertAndSendToUser(document.ownerEmail, ERROR_QUEUE,
+                    new CollabError(document.noteId, code, message));
+        } catch (Exception e) {
+            log.warn("Could not notify editors of note {}: {}", document.noteId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.syncora.note.collab;
+
+import com.syncora.common.exception.ConflictException;
+import com.syncora.common.exception.ResourceNotFoundException;
+import com.syncora.note.Note;
+import com.syncora.note.repository.NoteRepository;
+import com.syncora.note.service.NoteRevisionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Database side of collaboration sessions: loads a note when its first editor joins and
+ * writes the in-memory content back as a history-recorded update. Sessions track the note's
+ * content version, so only content written elsewhere conflicts with them; metadata changes
+ * such as starring, archiving or tags do not.
+ */
+@Service
+@RequiredArgsConstructor
+public class NoteSessionStore {
+
+    private final NoteRepository noteRepository;
+    private final NoteRevisionService noteRevisionService;
+
+    @Transactional(readOnly = true)
+    public StoredNote load(String noteId, String email) {
+        Note note = noteRepository.findByIdAndOwner_Email(noteId, email)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
+        return new StoredNote(note.getTitle(), note.getContent(), note.getContentVersion());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean canAccess(String noteId, String email) {
+        return noteRepository.existsByIdAndOwner_Email(noteId, email);
+    }
+
+    /** Current content version of the note, or null once it has been deleted. */
+    @Transactional(readOnly = true)
+    public Long currentContentVersion(String noteId) {
+        return noteRepository.findContentVersionById(noteId).orElse(null);
+    }
+
+    /**
+     * Saves {@code content} if the note's content is still at {@code expectedContentVersion},
+     * the one the session content is based on, and returns the content version afterwards. The
+     * write is a conditional update, so title and metadata changed in the meantime are kept.
+     *
+     * @throws ConflictException when the content was written outside the session in between
+     * @throws ResourceNotFoundException when the note was deleted
+     */
+    @Transactional
+    public long checkpoint(String noteId, String content, long expectedContentVersion) {
+        Note note = noteRepository.findById(noteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
+        if (note.getContentVersion() != expectedContentVersion) {
+            throw new ConflictException("Note " + noteId + " content is at version " + note.getContentVersion()
+                    + ", not " + expectedContentVersion);
+        }
+        if (Objects.equals(note.getContent(), content)) {
+            return note.getContentVersion();
+        }
+        String previousTitle = note.getTitle();
+        String previousContent = note.getContent();
+        Long previousVersion = note.getVersion();
+        if (noteRepository.updateContentIfUnchanged(noteId, content, expectedContentVersion, LocalDateTime.now()) == 0) {
+            throw new ConflictException("Note " + noteId + " content was changed concurrently");
+        }
+        Note saved = noteRepository.findById(noteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
+        noteRevisionService.recordChange(saved, previousTitle, previousContent, previousVersion, null);
+        return saved.getContentVersion();
+    }
+
+    public record StoredNote(String title, String content, long contentVersion) {
+    }
+}
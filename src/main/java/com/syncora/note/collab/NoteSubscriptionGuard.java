@@ -0,0 +1,30 @@
+package com.syncora.note.collab;
+
+import com.syncora.config.StompSubscriptionGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * A note's operation topic ({@code /topic/notes/{noteId}}) can only be subscribed to by the
+ * note's owner. The destination must name exactly one note: {@code /topic/notes/a/b} and other
+ * nested paths are refused rather than matched by prefix.
+ */
+@Component
+@RequiredArgsConstructor
+public class NoteSubscriptionGuard implements StompSubscriptionGuard {
+
+    private static final String NOTE_TOPIC_PREFIX = "/topic/notes/";
+
+    private final NoteCollaborationService collaborationService;
+
+    @Override
+    public boolean supports(String destination) {
+        return destination.startsWith(NOTE_TOPIC_PREFIX);
+    }
+
+    @Override
+    public boolean canSubscribe(String destination, String email) {
+        String noteId = destination.substring(NOTE_TOPIC_PREFIX.length());
+        return !noteId.isEmpty() && noteId.indexOf('/') < 0 && collaborationService.canSubscribe(noteId, email);
+    }
+}
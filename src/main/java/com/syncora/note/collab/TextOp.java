@@ -0,0 +1,184 @@
+package com.syncora.note.collab;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Operational-transformation text operation in the ot.js wire format: a JSON array whose
+ * positive numbers retain characters, negative numbers delete them and strings insert text,
+ * e.g. {@code [12, "hi", -3, 40]}. It spans the whole document, so {@link #baseLength()} must
+ * equal the length of the text it applies to. Lengths count UTF-16 code units like JavaScript.
+ */
+public final class TextOp {
+
+    private final List<Object> components = new ArrayList<>();
+    private int baseLength;
+    private int targetLength;
+
+    @JsonCreator
+    public static TextOp fromJson(List<Object> json) {
+        TextOp op = new TextOp();
+        for (Object component : json) {
+            if (component instanceof String text) {
+                op.insert(text);
+            } else if (component instanceof Number number && number.intValue() > 0) {
+                op.retain(number.intValue());
+            } else if (component instanceof Number number && number.intValue() < 0) {
+                op.delete(-number.intValue());
+            } else {
+                throw new IllegalArgumentException("Invalid operation component: " + component);
+            }
+        }
+        return op;
+    }
+
+    @JsonValue
+    public List<Object> toJson() {
+        return Collections.unmodifiableList(components);
+    }
+
+    public int baseLength() {
+        return baseLength;
+    }
+
+    public int targetLength() {
+        return targetLength;
+    }
+
+    public String apply(String text) {
+        if (text.length() != baseLength) {
+            throw new IllegalArgumentException("Operation expects " + baseLength + " characters, document has " + text.length());
+        }
+        StringBuilder result = new StringBuilder(targetLength);
+        int index = 0;
+        for (Object component : components) {
+            if (component instanceof String insert) {
+                result.append(insert);
+            } else {
+                int n = (Integer) component;
+                if (n > 0) {
+                    result.append(text, index, index + n);
+                    index += n;
+                } else {
+                    index -= n;
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Transforms two operations made concurrently on the same text. Returns {@code [a', b']}
+     * with {@code apply(apply(s, a), b') == apply(apply(s, b), a')}; on equal positions
+     * {@code a}'s insert goes first.
+     */
+    public static TextOp[] transform(TextOp a, TextOp b) {
+        if (a.baseLength != b.baseLength) {
+            throw new IllegalArgumentException("Concurrent operations must start from the same length");
+        }
+        TextOp aPrime = new TextOp();
+        TextOp bPrime = new TextOp();
+        int i = 0;
+        int j = 0;
+        Object ca = component(a, i++);
+        Object cb = component(b, j++);
+        while (ca != null || cb != null) {
+            if (ca instanceof String insert) {
+                aPrime.insert(insert);
+                bPrime.retain(insert.length());
+                ca = component(a, i++);
+                continue;
+            }
+            if (cb instanceof String insert) {
+                aPrime.retain(insert.length());
+                bPrime.insert(insert);
+                cb = component(b, j++);
+                continue;
+            }
+            if (ca == null || cb == null) {
+                throw new IllegalArgumentException("Operations do not cover the same text");
+            }
+            int na = (Integer) ca;
+            int nb = (Integer) cb;
+            int min = Math.min(Math.abs(na), Math.abs(nb));
+            if (na > 0 && nb > 0) {
+                aPrime.retain(min);
+                bPrime.retain(min);
+            } else if (na < 0 && nb > 0) {
+                aPrime.delete(min);
+            } else if (na > 0) {
+                bPrime.delete(min);
+            }
+            // Both deleted the same characters: nothing left to do for either side
+            if (Math.abs(na) == min) {
+                ca = component(a, i++);
+            } else {
+                ca = na > 0 ? na - min : na + min;
+            }
+            if (Math.abs(nb) == min) {
+                cb = component(b, j++);
+            } else {
+                cb = nb > 0 ? nb - min : nb + min;
+            }
+        }
+        return new TextOp[]{aPrime, bPrime};
+    }
+
+    private static Object component(TextOp op, int index) {
+        return index < op.components.size() ? op.components.get(index) : null;
+    }
+
+    private TextOp retain(int n) {
+        if (n <= 0) {
+            return this;
+        }
+        baseLength += n;
+        targetLength += n;
+        int last = components.size() - 1;
+        if (last >= 0 && components.get(last) instanceof Integer previous && previous > 0) {
+            components.set(last, previous + n);
+        } else {
+            components.add(n);
+        }
+        return this;
+    }
+
+    private TextOp insert(String text) {
+        if (text.isEmpty()) {
+            return this;
+        }
+        targetLength += text.length();
+        int last = components.size() - 1;
+        if (last >= 0 && components.get(last) instanceof String previous) {
+            components.set(last, previous + text);
+        } else if (last >= 0 && components.get(last) instanceof Integer previous && previous < 0) {
+            // Keep inserts before deletes so equal operations have one normal form
+            if (last > 0 && components.get(last - 1) instanceof String beforeDelete) {
+                components.set(last - 1, beforeDelete + text);
+            } else {
+                components.add(last, text);
+            }
+        } else {
+            components.add(text);
+        }
+        return this;
+    }
+
+    private TextOp delete(int n) {
+        if (n <= 0) {
+            return this;
+        }
+        baseLength += n;
+        int last = components.size() - 1;
+        if (last >= 0 && components.get(last) instanceof Integer previous && previous < 0) {
+            components.set(last, previous - n);
+        } else {
+            components.add(-n);
+        }
+        return this;
+    }
+}
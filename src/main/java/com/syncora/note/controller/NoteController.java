@@ -4,6 +4,10 @@ import com.syncora.common.exception.ResourceNotFoundException;
 import com.syncora.common.response.ApiResponse;
 import com.syncora.note.dto.CreateNoteRequest;
 import com.syncora.note.dto.NoteDTO;
+import com.syncora.note.dto.NoteRevisionDTO;
+import com.syncora.note.dto.NoteSearchResultDTO;
+import com.syncora.note.dto.NoteVersionDTO;
+import com.syncora.note.dto.PatchNoteRequest;
 import com.syncora.note.dto.UpdateNoteRequest;
 import com.syncora.note.service.NoteService;
 import com.syncora.security.JwtProvider;
@@ -18,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notes")
@@ -60,6 +65,18 @@ public class NoteController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Note updated successfully", note));
     }
 
+    @PatchMapping("/{noteId}")
+    @Operation(summary = "Patch note content",
+            description = "Applies insert/delete operations against a base version; returns 409 if the base is stale")
+    public ResponseEntity<ApiResponse<NoteVersionDTO>> patchNote(
+            HttpServletRequest req,
+            @PathVariable String noteId,
+            @Valid @RequestBody PatchNoteRequest request) {
+        User user = getCurrentUser(req);
+        NoteVersionDTO result = noteService.patchNote(noteId, request, user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Note patched successfully", result));
+    }
+
     @DeleteMapping("/{noteId}")
     @Operation(summary = "Delete a note", description = "Deletes a note")
     public ResponseEntity<ApiResponse<Void>> deleteNote(
@@ -80,6 +97,38 @@ public class NoteController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Note retrieved successfully", note));
     }
 
+    @GetMapping("/{noteId}/revisions")
+    @Operation(summary = "List note revisions", description = "Lists the saved versions of a note, newest first")
+    public ResponseEntity<ApiResponse<List<NoteRevisionDTO>>> getRevisions(
+            HttpServletRequest req,
+            @PathVariable String noteId) {
+        User user = getCurrentUser(req);
+        List<NoteRevisionDTO> revisions = noteService.getRevisions(noteId, user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Note revisions retrieved successfully", revisions));
+    }
+
+    @GetMapping("/{noteId}/revisions/{version}")
+    @Operation(summary = "Get note revision", description = "Rebuilds the note as it was at a given version")
+    public ResponseEntity<ApiResponse<NoteRevisionDTO>> getRevision(
+            HttpServletRequest req,
+            @PathVariable String noteId,
+            @PathVariable Long version) {
+        User user = getCurrentUser(req);
+        NoteRevisionDTO revision = noteService.getRevision(noteId, version, user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Note revision retrieved successfully", revision));
+    }
+
+    @PostMapping("/{noteId}/revisions/{version}/restore")
+    @Operation(summary = "Restore note revision", description = "Makes an earlier version the current content")
+    public ResponseEntity<ApiResponse<NoteDTO>> restoreRevision(
+            HttpServletRequest req,
+            @PathVariable String noteId,
+            @PathVariable Long version) {
+        User user = getCurrentUser(req);
+        NoteDTO note = noteService.restoreRevision(noteId, version, user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Note revision restored", note));
+    }
+
     @GetMapping
     @Operation(summary = "Get all notes", description = "Retrieves all notes for the user")
     public ResponseEntity<ApiResponse<List<NoteDTO>>> getAllNotes(HttpServletRequest req) {
@@ -113,17 +162,20 @@ public class NoteController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search notes", description = "Searches notes by title or content")
-    public ResponseEntity<ApiResponse<List<NoteDTO>>> searchNotes(
+    @Operation(summary = "Search notes",
+            description = "Full-text search over title and content; returns ranked results with highlighted snippets")
+    public ResponseEntity<ApiResponse<List<NoteSearchResultDTO>>> searchNotes(
             HttpServletRequest req,
-            @RequestParam String query) {
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         User user = getCurrentUser(req);
-        List<NoteDTO> notes = noteService.searchNotes(query, user);
+        List<NoteSearchResultDTO> notes = noteService.searchNotes(query, user, page, size);
         return ResponseEntity.ok(new ApiResponse<>(true, "Notes search completed", notes));
     }
 
     @GetMapping("/tags")
-    @Operation(summary = "Get notes by tags", description = "Retrieves notes filtered by tags")
+    @Operation(summary = "Get notes by tags", description = "Retrieves notes carrying any of the given tags")
     public ResponseEntity<ApiResponse<List<NoteDTO>>> getNotesByTags(
             HttpServletRequest req,
             @RequestParam List<String> tags) {
@@ -132,6 +184,25 @@ public class NoteController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Notes retrieved by tags", notes));
     }
 
+    @GetMapping("/tags/query")
+    @Operation(summary = "Filter notes by tag expression",
+               description = "Filters notes with a tag expression such as: work AND (urgent OR \"follow up\") AND NOT done")
+    public ResponseEntity<ApiResponse<List<NoteDTO>>> filterNotesByTags(
+            HttpServletRequest req,
+            @RequestParam("q") String expression) {
+        User user = getCurrentUser(req);
+        List<NoteDTO> notes = noteService.filterNotesByTags(expression, user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Notes filtered by tags", notes));
+    }
+
+    @GetMapping("/tags/counts")
+    @Operation(summary = "Get tag counts", description = "Returns the number of notes per tag, most used first")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> getTagCounts(HttpServletRequest req) {
+        User user = getCurrentUser(req);
+        Map<String, Integer> counts = noteService.getTagCounts(user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Tag counts retrieved", counts));
+    }
+
     @PatchMapping("/{noteId}/star")
     @Operation(summary = "Toggle star", description = "Toggles the starred status of a note")
     public ResponseEntity<ApiResponse<NoteDTO>> toggleStar(
@@ -22,4 +22,5 @@ public class NoteDTO {
     private String ownerName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,19 @@
+package com.syncora.note.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteRevisionDTO {
+    private String noteId;
+    private Long version;
+    private String title;
+    // Null in history listings; filled when a single revision is rebuilt
+    private String content;
+    private boolean snapshot;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.syncora.note.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchResultDTO {
+    private String id;
+    private String title;
+    // Matching excerpts with terms wrapped in <mark>…</mark>; the full note is fetched by id
+    private String snippet;
+    private String color;
+    private boolean starred;
+    private boolean archived;
+    private double rank;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.syncora.note.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Acknowledges a patch without echoing the content back; the client already holds it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteVersionDTO {
+    private String id;
+    private Long version;
+    private int contentLength;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.syncora.note.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One edit to a note's content. Offsets and lengths count UTF-16 code units, the same as
+ * JavaScript string indices, and refer to the content after the previous operation applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextOperation {
+
+    public enum Type { INSERT, DELETE }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    @Min(value = 0, message = "Offset must not be negative")
+    private int offset;
+
+    // INSERT only
+    private String text;
+
+    // DELETE only
+    @Min(value = 0, message = "Length must not be negative")
+    private int length;
+}
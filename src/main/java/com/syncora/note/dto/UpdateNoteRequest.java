@@ -25,4 +25,7 @@ public class UpdateNoteRequest {
     private Boolean starred;
 
     private Boolean archived;
+
+    // Optional: when present the update is rejected with 409 if the note has moved on
+    private Long version;
 }
@@ -1,7 +1,9 @@
 package com.syncora.note.repository;
 
+import com.syncora.common.tags.TagRow;
 import com.syncora.note.Note;
 import com.syncora.user.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,21 +23,60 @@ public interface NoteRepository extends JpaRepository<Note, String> {
     @Transactional
     void deleteAllByOwner(User owner);
     
+    // List finders fetch owner and tags in the same statement; mapToDTO reads both for every row
+    @EntityGraph(attributePaths = {"owner", "tags"})
     List<Note> findByOwnerAndArchivedOrderByCreatedAtDesc(User owner, boolean archived);
     
+    @EntityGraph(attributePaths = {"owner", "tags"})
     List<Note> findByOwnerAndStarredAndArchivedOrderByCreatedAtDesc(User owner, boolean starred, boolean archived);
     
+    @EntityGraph(attributePaths = {"owner", "tags"})
     List<Note> findByOwnerOrderByCreatedAtDesc(User owner);
     
     Optional<Note> findByIdAndOwner(String id, User owner);
     
-    @Query("SELECT n FROM Note n WHERE n.owner = :owner AND " +
-           "(LOWER(n.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(n.content) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Note> searchNotes(@Param("owner") User owner, @Param("query") String query);
+    Optional<Note> findByIdAndOwner_Email(String id, String ownerEmail);
     
-    @Query("SELECT n FROM Note n JOIN n.tags t WHERE n.owner = :owner AND t IN :tags")
-    List<Note> findByOwnerAndTagsIn(@Param("owner") User owner, @Param("tags") List<String> tags);
+    boolean existsByIdAndOwner_Email(String id, String ownerEmail);
+    
+    // Lets open collaboration sessions notice content written through the REST API
+    @Query("SELECT n.contentVersion FROM Note n WHERE n.id = :id")
+    Optional<Long> findContentVersionById(@Param("id") String id);
+    
+    // Collaboration checkpoint: only applies while nobody else changed the content, and bumps
+    // the entity version too so REST clients holding the old one conflict
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Note n SET n.content = :content, n.contentVersion = n.contentVersion + 1, " +
+           "n.version = n.version + 1, n.updatedAt = :now " +
+           "WHERE n.id = :id AND n.contentVersion = :expectedContentVersion")
+    int updateContentIfUnchanged(@Param("id") String id, @Param("content") String content,
+                                 @Param("expectedContentVersion") long expectedContentVersion,
+                                 @Param("now") LocalDateTime now);
+    
+    // Ranks one page of matches through the GIN index, then builds snippets for that page only
+    @Query(value = "SELECT n.note_id AS id, n.title AS title, n.color AS color, n.starred AS starred, " +
+           "n.archived AS archived, n.updated_at AS updatedAt, hits.rank AS rank, " +
+           "ts_headline('english', coalesce(n.content, ''), websearch_to_tsquery('english', :query), " +
+           "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8, FragmentDelimiter=\" … \"') AS snippet " +
+           "FROM (SELECT note_id, CAST(ts_rank(search_vector, websearch_to_tsquery('english', :query)) AS double precision) AS rank " +
+           "      FROM notes " +
+           "      WHERE owner_id = :ownerId AND search_vector @@ websearch_to_tsquery('english', :query) " +
+           "      ORDER BY rank DESC, updated_at DESC, note_id " +
+           "      LIMIT :limit OFFSET :offset) hits " +
+           "JOIN notes n ON n.note_id = hits.note_id " +
+           "ORDER BY hits.rank DESC, n.updated_at DESC, n.note_id",
+           nativeQuery = true)
+    List<NoteSearchHit> searchNotes(@Param("ownerId") String ownerId,
+                                    @Param("query") String query,
+                                    @Param("limit") int limit,
+                                    @Param("offset") int offset);
+    
+    // One row per (note, tag); untagged notes come back once with a null tag
+    @Query("SELECT n.id AS itemId, t AS tag FROM Note n LEFT JOIN n.tags t WHERE n.owner = :owner")
+    List<TagRow> findTagRowsByOwner(@Param("owner") User owner);
+    
+    @EntityGraph(attributePaths = {"owner", "tags"})
+    List<Note> findByIdInAndOwnerOrderByCreatedAtDesc(Collection<String> ids, User owner);
     
     long countByOwnerAndArchived(User owner, boolean archived);
 }
@@ -0,0 +1,38 @@
+package com.syncora.note.repository;
+
+import com.syncora.note.NoteRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, String> {
+
+    Optional<NoteRevision> findTopByNoteIdOrderByVersionDesc(String noteId);
+
+    List<NoteRevisionSummary> findByNoteIdOrderByVersionDesc(String noteId);
+
+    Optional<NoteRevision> findTopByNoteIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc(String noteId, Long version);
+
+    // The snapshot plus every delta up to the target, in replay order
+    @Query("SELECT r FROM NoteRevision r WHERE r.noteId = :noteId " +
+           "AND r.version BETWEEN :fromVersion AND :toVersion ORDER BY r.version")
+    List<NoteRevision> findChain(@Param("noteId") String noteId,
+                                 @Param("fromVersion") Long fromVersion,
+                                 @Param("toVersion") Long toVersion);
+
+    @Modifying
+    @Query("DELETE FROM NoteRevision r WHERE r.noteId = :noteId")
+    int deleteByNoteId(@Param("noteId") String noteId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NoteRevision r WHERE r.ownerId = :ownerId")
+    int deleteAllByOwnerId(@Param("ownerId") String ownerId);
+}
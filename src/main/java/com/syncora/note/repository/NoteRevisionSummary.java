@@ -0,0 +1,13 @@
+package com.syncora.note.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * History listing row; never loads content or deltas.
+ */
+public interface NoteRevisionSummary {
+    Long getVersion();
+    String getTitle();
+    boolean isSnapshot();
+    LocalDateTime getCreatedAt();
+}
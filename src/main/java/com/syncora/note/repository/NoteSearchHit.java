@@ -0,0 +1,17 @@
+package com.syncora.note.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ranked search result: note metadata plus a highlighted excerpt instead of the full content.
+ */
+public interface NoteSearchHit {
+    String getId();
+    String getTitle();
+    String getSnippet();
+    String getColor();
+    Boolean getStarred();
+    Boolean getArchived();
+    Double getRank();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,39 @@
+package com.syncora.note.service;
+
+import com.syncora.common.exception.ApiException;
+import com.syncora.note.dto.TextOperation;
+
+import java.util.List;
+
+/**
+ * Applies text operations to note content in order, each against the result of the previous one.
+ */
+final class NoteContentPatcher {
+
+    private NoteContentPatcher() {
+    }
+
+    static String apply(String content, List<TextOperation> ops) {
+        StringBuilder text = new StringBuilder(content != null ? content : "");
+        for (TextOperation op : ops) {
+            if (op.getOffset() > text.length()) {
+                throw new ApiException("Operation offset " + op.getOffset() + " is past the end of the note");
+            }
+            switch (op.getType()) {
+                case INSERT -> {
+                    if (op.getText() == null || op.getText().isEmpty()) {
+                        throw new ApiException("Insert operation needs text");
+                    }
+                    text.insert(op.getOffset(), op.getText());
+                }
+                case DELETE -> {
+                    if (op.getLength() > text.length() - op.getOffset()) {
+                        throw new ApiException("Delete operation runs past the end of the note");
+                    }
+                    text.delete(op.getOffset(), op.getOffset() + op.getLength());
+                }
+            }
+        }
+        return text.toString();
+    }
+}
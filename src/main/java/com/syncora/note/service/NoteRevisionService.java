@@ -0,0 +1,168 @@
+package com.syncora.note.service;
+
+import com.syncora.common.exception.ResourceNotFoundException;
+import com.syncora.note.Note;
+import com.syncora.note.NoteRevision;
+import com.syncora.note.dto.NoteRevisionDTO;
+import com.syncora.note.dto.TextOperation;
+import com.syncora.note.repository.NoteRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Note history as periodic full snapshots plus deltas between them. A new snapshot is taken
+ * every {@code notes.history.snapshot-interval} revisions, or earlier when a delta would not
+ * be smaller than the content, so rebuilding any revision replays fewer than that many deltas.
+ * Runs inside the caller's transaction, so a rejected write leaves no history behind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class NoteRevisionService {
+
+    // Rough per-operation JSON overhead when comparing a delta with a snapshot
+    private static final int OP_OVERHEAD = 32;
+
+    private final NoteRevisionRepository revisionRepository;
+
+    @Value("${notes.history.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    public void recordCreated(Note note) {
+        revisionRepository.save(snapshot(note, note.getVersion(), note.getTitle(), note.getContent()));
+    }
+
+    /**
+     * Records the note's state after a flushed write. {@code ops} are the operations the client
+     * sent, or null to diff {@code previousContent} against the new content.
+     */
+    public void recordChange(Note note, String previousTitle, String previousContent, Long previousVersion,
+                             List<TextOperation> ops) {
+        if (Objects.equals(previousTitle, note.getTitle()) && Objects.equals(previousContent, note.getContent())) {
+            return;
+        }
+
+        NoteRevision latest = revisionRepository.findTopByNoteIdOrderByVersionDesc(note.getId()).orElse(null);
+        if (latest == null) {
+            // Note predates history: keep what is being overwritten as the first snapshot
+            latest = revisionRepository.save(snapshot(note, previousVersion, previousTitle, previousContent));
+        }
+
+        List<TextOperation> delta = ops != null ? ops : diff(previousContent, note.getContent());
+        String content = note.getContent() != null ? note.getContent() : "";
+        if (latest.getDepth() + 1 >= snapshotInterval || deltaSize(delta) >= content.length()) {
+            revisionRepository.save(snapshot(note, note.getVersion(), note.getTitle(), note.getContent()));
+            return;
+        }
+        revisionRepository.save(NoteRevision.builder()
+                .noteId(note.getId())
+                .ownerId(note.getOwner().getId())
+                .version(note.getVersion())
+                .snapshot(false)
+                .depth(latest.getDepth() + 1)
+                .title(note.getTitle())
+                .delta(delta)
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public List<NoteRevisionDTO> listRevisions(String noteId) {
+        return revisionRepository.findByNoteIdOrderByVersionDesc(noteId).stream()
+                .map(r -> NoteRevisionDTO.builder()
+                        .noteId(noteId)
+                        .version(r.getVersion())
+                        .title(r.getTitle())
+                        .snapshot(r.isSnapshot())
+                        .createdAt(r.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /** Rebuilds the latest revision at or before {@code version}: one snapshot plus its deltas. */
+    @Transactional(readOnly = true)
+    public NoteRevisionDTO rebuild(String noteId, Long version) {
+        NoteRevision base = revisionRepository
+                .findTopByNoteIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc(noteId, version)
+                .orElseThrow(() -> new ResourceNotFoundException("No revision " + version + " for note " + noteId));
+
+        List<NoteRevision> chain = revisionRepository.findChain(noteId, base.getVersion(), version);
+        String content = base.getContent() != null ? base.getContent() : "";
+        NoteRevision last = base;
+        for (NoteRevision revision : chain) {
+            if (revision.isSnapshot()) {
+                continue;
+            }
+            content = NoteContentPatcher.apply(content, revision.getDelta());
+            last = revision;
+        }
+
+        return NoteRevisionDTO.builder()
+                .noteId(noteId)
+                .version(last.getVersion())
+                .title(last.getTitle())
+                .content(content)
+                .snapshot(last.isSnapshot())
+                .createdAt(last.getCreatedAt())
+                .build();
+    }
+
+    public void deleteHistory(String noteId) {
+        revisionRepository.deleteByNoteId(noteId);
+    }
+
+    private NoteRevision snapshot(Note note, Long version, String title, String content) {
+        return NoteRevision.builder()
+                .noteId(note.getId())
+                .ownerId(note.getOwner().getId())
+                .version(version)
+                .snapshot(true)
+                .depth(0)
+                .title(title)
+                .content(content)
+                .build();
+    }
+
+    // Single replace of the changed middle; typical edits touch one region of the note
+    private static List<TextOperation> diff(String before, String after) {
+        String a = before != null ? before : "";
+        String b = after != null ? after : "";
+        int prefix = 0;
+        int max = Math.min(a.length(), b.length());
+        while (prefix < max && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && a.charAt(a.length() - 1 - suffix) == b.charAt(b.length() - 1 - suffix)) {
+            suffix++;
+        }
+
+        int removed = a.length() - prefix - suffix;
+        String inserted = b.substring(prefix, b.length() - suffix);
+        List<TextOperation> ops = new ArrayList<>(2);
+        if (removed > 0) {
+            ops.add(TextOperation.builder().type(TextOperation.Type.DELETE).offset(prefix).length(removed).build());
+        }
+        if (!inserted.isEmpty()) {
+            ops.add(TextOperation.builder().type(TextOperation.Type.INSERT).offset(prefix).text(inserted).build());
+        }
+        return ops;
+    }
+
+    private static int deltaSize(List<TextOperation> ops) {
+        int size = 0;
+        for (TextOperation op : ops) {
+            size += OP_OVERHEAD + (op.getText() != null ? op.getText().length() : 0);
+        }
+        return size;
+    }
+}
@@ -2,10 +2,15 @@ package com.syncora.note.service;
 
 import com.syncora.note.dto.CreateNoteRequest;
 import com.syncora.note.dto.NoteDTO;
+import com.syncora.note.dto.NoteRevisionDTO;
+import com.syncora.note.dto.NoteSearchResultDTO;
+import com.syncora.note.dto.NoteVersionDTO;
+import com.syncora.note.dto.PatchNoteRequest;
 import com.syncora.note.dto.UpdateNoteRequest;
 import com.syncora.user.entity.User;
 
 import java.util.List;
+import java.util.Map;
 
 public interface NoteService {
     
@@ -13,10 +18,18 @@ public interface NoteService {
     
     NoteDTO updateNote(String noteId, UpdateNoteRequest request, User owner);
     
+    NoteVersionDTO patchNote(String noteId, PatchNoteRequest request, User owner);
+    
     void deleteNote(String noteId, User owner);
     
     NoteDTO getNoteById(String noteId, User owner);
     
+    List<NoteRevisionDTO> getRevisions(String noteId, User owner);
+    
+    NoteRevisionDTO getRevision(String noteId, Long version, User owner);
+    
+    NoteDTO restoreRevision(String noteId, Long version, User owner);
+    
     List<NoteDTO> getAllNotes(User owner);
     
     List<NoteDTO> getActiveNotes(User owner);
@@ -25,10 +38,14 @@ public interface NoteService {
     
     List<NoteDTO> getArchivedNotes(User owner);
     
-    List<NoteDTO> searchNotes(String query, User owner);
+    List<NoteSearchResultDTO> searchNotes(String query, User owner, int page, int size);
     
     List<NoteDTO> getNotesByTags(List<String> tags, User owner);
     
+    List<NoteDTO> filterNotesByTags(String expression, User owner);
+    
+    Map<String, Integer> getTagCounts(User owner);
+    
     NoteDTO toggleStar(String noteId, User owner);
     
     NoteDTO toggleArchive(String noteId, User owner);
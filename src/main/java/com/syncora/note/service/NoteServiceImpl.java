@@ -1,11 +1,20 @@
 package com.syncora.note.service;
 
+import com.syncora.common.exception.ConflictException;
 import com.syncora.common.exception.ResourceNotFoundException;
+import com.syncora.common.tags.TagExpression;
+import com.syncora.common.tags.TagIndex;
+import com.syncora.common.tags.TagIndexService;
 import com.syncora.note.Note;
 import com.syncora.note.dto.CreateNoteRequest;
 import com.syncora.note.dto.NoteDTO;
+import com.syncora.note.dto.NoteRevisionDTO;
+import com.syncora.note.dto.NoteSearchResultDTO;
+import com.syncora.note.dto.NoteVersionDTO;
+import com.syncora.note.dto.PatchNoteRequest;
 import com.syncora.note.dto.UpdateNoteRequest;
 import com.syncora.note.repository.NoteRepository;
+import com.syncora.note.repository.NoteSearchHit;
 import com.syncora.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,7 +31,11 @@ import java.util.stream.Collectors;
 @Transactional
 public class NoteServiceImpl implements NoteService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final NoteRepository noteRepository;
+    private final NoteRevisionService noteRevisionService;
+    private final TagIndexService tagIndexService;
 
     @Override
     public NoteDTO createNote(CreateNoteRequest request, User owner) {
@@ -38,6 +52,8 @@ public class NoteServiceImpl implements NoteService {
                 .build();
 
         Note savedNote = noteRepository.save(note);
+        noteRevisionService.recordCreated(savedNote);
+        tagIndexService.itemSaved(TagIndexService.Kind.NOTE, List.of(owner.getId()), savedNote.getId(), savedNote.getTags());
         log.info("Note created successfully with ID: {}", savedNote.getId());
         
         return mapToDTO(savedNote);
@@ -49,6 +65,10 @@ public class NoteServiceImpl implements NoteService {
         
         Note note = noteRepository.findByIdAndOwner(noteId, owner)
                 .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
+        checkVersion(note, request.getVersion());
+        String previousTitle = note.getTitle();
+        String previousContent = note.getContent();
+        Long previousVersion = note.getVersion();
 
         if (request.getTitle() != null) {
             note.setTitle(request.getTitle());
@@ -69,12 +89,40 @@ public class NoteServiceImpl implements NoteService {
             note.setArchived(request.getArchived());
         }
 
-        Note updatedNote = noteRepository.save(note);
+        // Flushed so the returned version is the one the client must send back next
+        Note updatedNote = noteRepository.saveAndFlush(note);
+        noteRevisionService.recordChange(updatedNote, previousTitle, previousContent, previousVersion, null);
+        if (request.getTags() != null) {
+            tagIndexService.itemSaved(TagIndexService.Kind.NOTE, List.of(owner.getId()), noteId, updatedNote.getTags());
+        }
         log.info("Note updated successfully: {}", noteId);
         
         return mapToDTO(updatedNote);
     }
 
+    @Override
+    public NoteVersionDTO patchNote(String noteId, PatchNoteRequest request, User owner) {
+        log.info("Patching note {} with {} ops for user: {}", noteId, request.getOps().size(), owner.getEmail());
+        
+        Note note = noteRepository.findByIdAndOwner(noteId, owner)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
+        checkVersion(note, request.getBaseVersion());
+        String previousContent = note.getContent();
+
+        note.setContent(NoteContentPatcher.apply(previousContent, request.getOps()));
+        // Flush now so a concurrent writer surfaces here as a conflict and the new version is known
+        Note patched = noteRepository.saveAndFlush(note);
+        noteRevisionService.recordChange(patched, patched.getTitle(), previousContent,
+                request.getBaseVersion(), request.getOps());
+        
+        return NoteVersionDTO.builder()
+                .id(patched.getId())
+                .version(patched.getVersion())
+                .contentLength(patched.getContent().length())
+                .updatedAt(patched.getUpdatedAt())
+                .build();
+    }
+
     @Override
     public void deleteNote(String noteId, User owner) {
         log.info("Deleting note {} for user: {}", noteId, owner.getEmail());
@@ -83,9 +131,44 @@ public class NoteServiceImpl implements NoteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
 
         noteRepository.delete(note);
+        noteRevisionService.deleteHistory(noteId);
+        tagIndexService.itemRemoved(TagIndexService.Kind.NOTE, List.of(owner.getId()), noteId);
         log.info("Note deleted successfully: {}", noteId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteRevisionDTO> getRevisions(String noteId, User owner) {
+        requireNote(noteId, owner);
+        return noteRevisionService.listRevisions(noteId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteRevisionDTO getRevision(String noteId, Long version, User owner) {
+        requireNote(noteId, owner);
+        return noteRevisionService.rebuild(noteId, version);
+    }
+
+    @Override
+    public NoteDTO restoreRevision(String noteId, Long version, User owner) {
+        log.info("Restoring note {} to revision {} for user: {}", noteId, version, owner.getEmail());
+        
+        Note note = requireNote(noteId, owner);
+        NoteRevisionDTO revision = noteRevisionService.rebuild(noteId, version);
+        String previousTitle = note.getTitle();
+        String previousContent = note.getContent();
+        Long previousVersion = note.getVersion();
+
+        // Restoring is a new write on top of history, so the overwritten state stays recoverable
+        note.setTitle(revision.getTitle());
+        note.setContent(revision.getContent());
+        Note restored = noteRepository.saveAndFlush(note);
+        noteRevisionService.recordChange(restored, previousTitle, previousContent, previousVersion, null);
+        
+        return mapToDTO(restored);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public NoteDTO getNoteById(String noteId, User owner) {
@@ -135,11 +218,16 @@ public class NoteServiceImpl implements NoteService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<NoteDTO> searchNotes(String query, User owner) {
+    public List<NoteSearchResultDTO> searchNotes(String query, User owner, int page, int size) {
         log.info("Searching notes with query '{}' for user: {}", query, owner.getEmail());
         
-        List<Note> notes = noteRepository.searchNotes(owner, query);
-        return notes.stream().map(this::mapToDTO).collect(Collectors.toList());
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+        int offset = Math.max(page, 0) * limit;
+        List<NoteSearchHit> hits = noteRepository.searchNotes(owner.getId(), query.trim(), limit, offset);
+        return hits.stream().map(this::mapToSearchResult).collect(Collectors.toList());
     }
 
     @Override
@@ -147,8 +235,21 @@ public class NoteServiceImpl implements NoteService {
     public List<NoteDTO> getNotesByTags(List<String> tags, User owner) {
         log.info("Fetching notes with tags {} for user: {}", tags, owner.getEmail());
         
-        List<Note> notes = noteRepository.findByOwnerAndTagsIn(owner, tags);
-        return notes.stream().map(this::mapToDTO).collect(Collectors.toList());
+        return findByTagExpression(TagExpression.anyOf(tags), owner);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteDTO> filterNotesByTags(String expression, User owner) {
+        log.info("Filtering notes by tag expression '{}' for user: {}", expression, owner.getEmail());
+        
+        return findByTagExpression(TagExpression.parse(expression), owner);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getTagCounts(User owner) {
+        return tagIndex(owner).counts();
     }
 
     @Override
@@ -159,7 +260,7 @@ public class NoteServiceImpl implements NoteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
 
         note.setStarred(!note.isStarred());
-        Note updatedNote = noteRepository.save(note);
+        Note updatedNote = noteRepository.saveAndFlush(note);
         log.info("Note star toggled: {} - starred: {}", noteId, updatedNote.isStarred());
         
         return mapToDTO(updatedNote);
@@ -173,7 +274,7 @@ public class NoteServiceImpl implements NoteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
 
         note.setArchived(!note.isArchived());
-        Note updatedNote = noteRepository.save(note);
+        Note updatedNote = noteRepository.saveAndFlush(note);
         log.info("Note archive toggled: {} - archived: {}", noteId, updatedNote.isArchived());
         
         return mapToDTO(updatedNote);
@@ -185,6 +286,45 @@ public class NoteServiceImpl implements NoteService {
         return noteRepository.countByOwnerAndArchived(owner, false);
     }
 
+    private Note requireNote(String noteId, User owner) {
+        return noteRepository.findByIdAndOwner(noteId, owner)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + noteId));
+    }
+
+    private void checkVersion(Note note, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(note.getVersion())) {
+            throw new ConflictException("Note " + note.getId() + " is at version " + note.getVersion()
+                    + ", not " + expectedVersion);
+        }
+    }
+
+    private NoteSearchResultDTO mapToSearchResult(NoteSearchHit hit) {
+        return NoteSearchResultDTO.builder()
+                .id(hit.getId())
+                .title(hit.getTitle())
+                .snippet(hit.getSnippet())
+                .color(hit.getColor())
+                .starred(Boolean.TRUE.equals(hit.getStarred()))
+                .archived(Boolean.TRUE.equals(hit.getArchived()))
+                .rank(hit.getRank() != null ? hit.getRank() : 0)
+                .updatedAt(hit.getUpdatedAt())
+                .build();
+    }
+
+    private List<NoteDTO> findByTagExpression(TagExpression expression, User owner) {
+        List<String> ids = tagIndex(owner).find(expression);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Note> notes = noteRepository.findByIdInAndOwnerOrderByCreatedAtDesc(ids, owner);
+        return notes.stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    private TagIndex tagIndex(User owner) {
+        return tagIndexService.get(TagIndexService.Kind.NOTE, owner.getId(),
+                () -> noteRepository.findTagRowsByOwner(owner));
+    }
+
     private NoteDTO mapToDTO(Note note) {
         return NoteDTO.builder()
                 .id(note.getId())
@@ -199,6 +339,7 @@ public class NoteServiceImpl implements NoteService {
                 .ownerName(note.getOwner().getFirstName() + " " + note.getOwner().getLastName())
                 .createdAt(note.getCreatedAt())
                 .updatedAt(note.getUpdatedAt())
+                .version(note.getVersion())
                 .build();
     }
 }
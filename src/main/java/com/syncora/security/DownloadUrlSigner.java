@@ -0,0 +1,85 @@
+package com.syncora.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies short-lived HMAC-SHA256 signed download URLs.
+ * <p>
+ * The signature covers the file id and the expiry, so a URL can be checked with nothing but
+ * the shared secret: no user lookup and no database access.
+ * <p>
+ * The key comes from {@code storage.signed-url.secret}. When that is unset a dedicated key is
+ * derived from {@code jwt.secret} with HKDF-SHA256 and a purpose label, so the auth-token
+ * signing key itself is never used to sign URLs.
+ */
+@Component
+public class DownloadUrlSigner {
+
+    public static final String SIGNED_DOWNLOAD_PATH = "/api/chat/files/signed/";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_PURPOSE = "syncora chat-file download url v1".getBytes(StandardCharsets.UTF_8);
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    public DownloadUrlSigner(@Value("${storage.signed-url.secret:}") String secret,
+                             @Value("${jwt.secret}") String jwtSecret,
+                             @Value("${storage.signed-url.ttl-seconds:300}") long ttlSeconds) {
+        byte[] keyBytes = secret.isBlank()
+                ? deriveKey(jwtSecret.getBytes(StandardCharsets.UTF_8))
+                : secret.getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String signedDownloadUrl(String fileId) {
+        long expires = Instant.now().getEpochSecond() + ttlSeconds;
+        return SIGNED_DOWNLOAD_PATH + fileId + "?expires=" + expires + "&signature=" + sign(fileId, expires);
+    }
+
+    public boolean verify(String fileId, long expires, String signature) {
+        if (fileId == null || signature == null || expires < Instant.now().getEpochSecond()) {
+            return false;
+        }
+        byte[] expected = sign(fileId, expires).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // HKDF (RFC 5869) with an all-zero salt, expanded to a single 32-byte block
+    private static byte[] deriveKey(byte[] inputKey) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(new byte[32], ALGORITHM));
+            byte[] pseudoRandomKey = mac.doFinal(inputKey);
+
+            mac.init(new SecretKeySpec(pseudoRandomKey, ALGORITHM));
+            mac.update(KEY_PURPOSE);
+            mac.update((byte) 1);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to derive download URL key", e);
+        }
+    }
+
+    private String sign(String fileId, long expires) {
+        try {
+            // Mac instances are not thread-safe, so take a fresh one per signature
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((fileId + ":" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign download URL", e);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,6 +24,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtProvider jwtProvider;
     private final UserRepository userRepository;
 
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest req) {
+        // Signed download URLs carry their own HMAC; skip the per-request user lookup
+        return req.getRequestURI().startsWith(DownloadUrlSigner.SIGNED_DOWNLOAD_PATH);
+    }
+
     protected void doFilterInternal(@NonNull HttpServletRequest req, @NonNull HttpServletResponse res,
             @NonNull FilterChain chain) throws IOException, ServletException {
 
@@ -39,7 +46,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 if (email != null) {
                     User user = userRepository.findByEmail(email).orElse(null);
                     if (user != null) {
-                        var auth = new UsernamePasswordAuthenticationToken(email, null, List.of());
+                        var auth = new UsernamePasswordAuthenticationToken(email, null,
+                                List.of(new SimpleGrantedAuthority(user.getRole())));
                         SecurityContextHolder.getContext().setAuthentication(auth);
                     }
                 }
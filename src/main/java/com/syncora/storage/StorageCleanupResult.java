@@ -0,0 +1,9 @@
+package com.syncora.storage;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one storage sweep: how many blobs were removed and how many bytes that freed.
+ */
+public record StorageCleanupResult(long filesDeleted, long bytesReclaimed, int batches, Duration elapsed) {
+}
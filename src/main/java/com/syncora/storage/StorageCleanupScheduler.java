@@ -0,0 +1,54 @@
+package com.syncora.storage;
+
+import com.syncora.email.service.EmailAttachmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StorageCleanupScheduler {
+
+    private final StorageCleanupService storageCleanupService;
+    private final StorageQuotaService storageQuotaService;
+    private final EmailAttachmentService emailAttachmentService;
+
+    /**
+     * Sweep orphaned chat files on the configured schedule (daily at 2 AM by default)
+     */
+    @Scheduled(cron = "${storage.cleanup.cron:0 0 2 * * ?}")
+    public void purgeOrphanedFiles() {
+        log.info("Starting scheduled task: storage cleanup");
+        try {
+            storageCleanupService.purgeOrphanedFiles();
+        } catch (Exception e) {
+            log.error("Error during storage cleanup", e);
+        }
+    }
+
+    /**
+     * Release quota reservations from uploads that never completed, every 15 minutes by default
+     */
+    @Scheduled(fixedDelayString = "${storage.reservation.sweep-interval-ms:900000}")
+    public void releaseExpiredReservations() {
+        try {
+            storageQuotaService.releaseExpiredReservations();
+        } catch (Exception e) {
+            log.error("Error releasing expired storage reservations", e);
+        }
+    }
+
+    /**
+     * Drop email attachments that were uploaded but never sent, hourly by default
+     */
+    @Scheduled(fixedDelayString = "${storage.email.purge-interval-ms:3600000}")
+    public void purgeUnsentEmailAttachments() {
+        try {
+            emailAttachmentService.purgeUnattached();
+        } catch (Exception e) {
+            log.error("Error purging unsent email attachments", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.syncora.storage;
+
+import com.syncora.communication.chat.cache.ChatFileContentCache;
+import com.syncora.communication.chat.repository.ChatFileRepository;
+import com.syncora.communication.chat.repository.OrphanedChatFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes chat files that are past the retention window and no longer referenced by a message.
+ * <p>
+ * Candidates are walked in keyset order by id, one bounded batch at a time. Each batch is
+ * deleted in its own short transaction together with the quota credit for its uploaders, so the
+ * sweep never holds locks across the whole table and the ledger moves only if the delete commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageCleanupService {
+
+    private final ChatFileRepository chatFileRepository;
+    private final StorageQuotaService storageQuotaService;
+    private final ChatFileContentCache contentCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${storage.cleanup.batch-size:500}")
+    private int batchSize;
+
+    public StorageCleanupResult purgeOrphanedFiles() {
+        long startedAt = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+
+        String cursor = "";
+        long filesDeleted = 0;
+        long bytesReclaimed = 0;
+        int batches = 0;
+
+        while (true) {
+            List<OrphanedChatFile> batch = chatFileRepository.findOrphanedAfter(
+                    cursor, cutoff, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            batches++;
+            cursor = batch.get(batch.size() - 1).getId();
+
+            Map<String, OrphanedChatFile> candidates = new LinkedHashMap<>();
+            batch.forEach(f -> candidates.put(f.getId(), f));
+
+            // Delete and quota credit commit together, so a failure cannot leave freed bytes charged
+            Map<String, OrphanedChatFile> deleted = transactionTemplate.execute(status -> deleteBatch(candidates, cutoff));
+
+            deleted.keySet().forEach(contentCache::invalidate);
+            for (OrphanedChatFile file : deleted.values()) {
+                bytesReclaimed += sizeOf(file);
+            }
+            filesDeleted += deleted.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        StorageCleanupResult result = new StorageCleanupResult(
+                filesDeleted, bytesReclaimed, batches, Duration.ofNanos(System.nanoTime() - startedAt));
+        log.info("Storage cleanup removed {} files ({} bytes) in {} batches, took {} ms",
+                result.filesDeleted(), result.bytesReclaimed(), result.batches(), result.elapsed().toMillis());
+        return result;
+    }
+
+    private Map<String, OrphanedChatFile> deleteBatch(Map<String, OrphanedChatFile> candidates, LocalDateTime cutoff) {
+        int deleted = chatFileRepository.deleteOrphanedByIdIn(candidates.keySet(), cutoff);
+        if (deleted < candidates.size()) {
+            // Some files were attached to a message after we selected them; they stay.
+            chatFileRepository.findIdsByIdIn(candidates.keySet()).forEach(candidates::remove);
+        }
+
+        Map<String, Long> reclaimedByUser = new HashMap<>();
+        for (OrphanedChatFile file : candidates.values()) {
+            reclaimedByUser.merge(file.getUploadedBy(), sizeOf(file), Long::sum);
+        }
+        reclaimedByUser.forEach(storageQuotaService::releaseUsed);
+        return candidates;
+    }
+
+    private static long sizeOf(OrphanedChatFile file) {
+        return file.getFileSize() != null ? file.getFileSize() : 0L;
+    }
+}
@@ -0,0 +1,145 @@
+package com.syncora.storage;
+
+import com.syncora.storage.repository.StorageReservationRepository;
+import com.syncora.subscription.entity.PricingPlan;
+import com.syncora.subscription.exception.SubscriptionLimitException;
+import com.syncora.subscription.repository.PricingPlanRepository;
+import com.syncora.subscription.repository.UserSubscriptionRepository;
+import com.syncora.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-user storage ledger kept on {@code users.storage_used_bytes} / {@code storage_reserved_bytes}.
+ * <p>
+ * An upload first reserves its size with one conditional UPDATE that only succeeds while
+ * {@code used + reserved + size <= quota}; concurrent uploads serialize on that row and cannot
+ * overshoot. Once the blob is stored the reservation is committed into the used counter,
+ * otherwise it is released. Each step runs in its own short transaction so the row lock is
+ * never held while file bytes are being written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageQuotaService {
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final long UNLIMITED = -1L;
+
+    private final UserRepository userRepository;
+    private final UserSubscriptionRepository subscriptionRepository;
+    private final PricingPlanRepository planRepository;
+    private final StorageReservationRepository reservationRepository;
+
+    @Value("${storage.reservation.ttl-minutes:60}")
+    private long reservationTtlMinutes;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public StorageReservation reserve(String userEmail, long bytes) {
+        long quota = resolveQuotaBytes(userEmail);
+        if (userRepository.tryReserveStorage(userEmail, bytes, quota) == 0) {
+            throw quotaExceeded();
+        }
+        return reservationRepository.save(StorageReservation.builder()
+                .userEmail(userEmail)
+                .bytes(bytes)
+                .build());
+    }
+
+    /**
+     * Moves the reservation into the used counter. If the reservation sweeper already released
+     * it (the upload outlived the TTL), the bytes are charged again against the quota; when they
+     * no longer fit this throws and the caller must undo the upload.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void commit(StorageReservation reservation) {
+        String userEmail = reservation.getUserEmail();
+        if (reservationRepository.deleteByIdReturningCount(reservation.getId()) > 0) {
+            userRepository.commitReservedStorage(userEmail, reservation.getBytes());
+        } else {
+            log.warn("Storage reservation {} expired before commit, charging {} bytes again",
+                    reservation.getId(), reservation.getBytes());
+            if (userRepository.tryChargeStorage(userEmail, reservation.getBytes(), resolveQuotaBytes(userEmail)) == 0) {
+                throw quotaExceeded();
+            }
+        }
+        syncSubscriptionUsage(userEmail);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(StorageReservation reservation) {
+        releaseReservation(reservation);
+    }
+
+    /**
+     * Credit bytes back after files are deleted; joins the caller's transaction so the
+     * counter only moves if the delete commits.
+     */
+    @Transactional
+    public void releaseUsed(String userEmail, long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        userRepository.releaseUsedStorage(userEmail, bytes);
+        syncSubscriptionUsage(userEmail);
+    }
+
+    /**
+     * Release reservations left behind by uploads that never finished (e.g. a crashed node).
+     */
+    @Transactional
+    public int releaseExpiredReservations() {
+        List<StorageReservation> expired = reservationRepository
+                .findByCreatedAtBefore(LocalDateTime.now().minusMinutes(reservationTtlMinutes));
+        int released = 0;
+        for (StorageReservation reservation : expired) {
+            if (releaseReservation(reservation)) {
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired storage reservations", released);
+        }
+        return released;
+    }
+
+    private boolean releaseReservation(StorageReservation reservation) {
+        if (reservationRepository.deleteByIdReturningCount(reservation.getId()) == 0) {
+            return false;
+        }
+        userRepository.releaseReservedStorage(reservation.getUserEmail(), reservation.getBytes());
+        return true;
+    }
+
+    private static SubscriptionLimitException quotaExceeded() {
+        return new SubscriptionLimitException(
+            "You have reached your storage limit. Please upgrade your plan",
+            "STORAGE",
+            "PROFESSIONAL"
+        );
+    }
+
+    private long resolveQuotaBytes(String userEmail) {
+        List<Long> quota = subscriptionRepository.findStorageQuotaBytesByUserEmail(userEmail, PageRequest.of(0, 1));
+        if (!quota.isEmpty() && quota.get(0) != null) {
+            return quota.get(0);
+        }
+        // Users get their STARTER subscription lazily, so fall back to that plan's quota
+        return planRepository.findByName("STARTER")
+                .map(PricingPlan::getStorageQuotaBytes)
+                .orElse(UNLIMITED);
+    }
+
+    private void syncSubscriptionUsage(String userEmail) {
+        long usedBytes = userRepository.findStorageUsedBytesByEmail(userEmail).orElse(0L);
+        subscriptionRepository.updateStorageUsedMb(userEmail, usedBytes / BYTES_PER_MB);
+    }
+}
@@ -0,0 +1,41 @@
+package com.syncora.storage;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bytes held against a user's quota while an upload is in flight.
+ * The row is removed when the upload commits or fails; rows that outlive
+ * the reservation TTL are released by {@link StorageCleanupScheduler}.
+ */
+@Entity
+@Table(name = "storage_reservations", indexes = {
+        @Index(name = "idx_storage_reservation_created", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "user_email", nullable = false, length = 50)
+    private String userEmail;
+
+    @Column(nullable = false)
+    private Long bytes;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
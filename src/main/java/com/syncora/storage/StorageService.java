@@ -1,4 +1,133 @@
 package com.syncora.storage;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed blob store on the local filesystem under {@code storage.location}.
+ * <p>
+ * Uploads are streamed to a temp file while their SHA-256 is computed, then moved to
+ * {@code blobs/ab/cd/<hash>}. Identical content is therefore written once no matter how many
+ * rows reference it; callers keep the hash and decide when a blob is no longer needed.
+ */
+@Service
+@Slf4j
 public class StorageService {
+    
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    
+    private final Path blobRoot;
+    private final Path tempRoot;
+    
+    public StorageService(@Value("${storage.location:uploads}") String location) {
+        Path root = Paths.get(location).toAbsolutePath().normalize();
+        this.blobRoot = root.resolve("blobs");
+        this.tempRoot = root.resolve("tmp");
+        try {
+            Files.createDirectories(blobRoot);
+            Files.createDirectories(tempRoot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create storage directories under " + root, e);
+        }
+    }
+    
+    /**
+     * Streams {@code content} into the store, never holding more than one buffer in memory.
+     * Rejects content longer than {@code maxBytes}.
+     */
+    public StoredBlob store(InputStream content, long maxBytes) throws IOException {
+        Path temp = Files.createTempFile(tempRoot, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("File size exceeds maximum limit of " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                // Same bytes already stored; refresh the timestamp so a concurrent sweep keeps it
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                return new StoredBlob(hash, size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                return new StoredBlob(hash, size, true);
+            }
+            return new StoredBlob(hash, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /** Opens a stored blob; the resource supports ranged reads without loading the file. */
+    public Resource load(String hash) {
+        Path path = pathOf(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Blob not found: " + hash);
+        }
+        return new FileSystemResource(path);
+    }
+    
+    /**
+     * Deletes a blob the caller knows is unreferenced, unless it was written or re-uploaded
+     * within {@code grace}: an upload of the same content may not have committed its row yet.
+     */
+    public boolean delete(String hash, Duration grace) {
+        Path path = pathOf(hash);
+        try {
+            if (!Files.exists(path)
+                    || Files.getLastModifiedTime(path).toInstant().isAfter(Instant.now().minus(grace))) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}", hash, e);
+            return false;
+        }
+    }
+    
+    private Path pathOf(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash");
+        }
+        return blobRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package com.syncora.storage;
+
+/**
+ * A blob in the content-addressed store: its SHA-256 (lowercase hex) and length in bytes.
+ * {@code deduplicated} is true when identical content was already stored and nothing was written.
+ */
+public record StoredBlob(String hash, long size, boolean deduplicated) {
+}
@@ -0,0 +1,22 @@
+package com.syncora.storage.repository;
+
+import com.syncora.storage.StorageReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StorageReservationRepository extends JpaRepository<StorageReservation, String> {
+
+    // Returns 1 only for the caller that actually removed the row, so commit/release run once
+    @Modifying
+    @Query("DELETE FROM StorageReservation r WHERE r.id = :id")
+    int deleteByIdReturningCount(@Param("id") String id);
+
+    List<StorageReservation> findByCreatedAtBefore(LocalDateTime cutoff);
+}
@@ -2,9 +2,11 @@ package com.syncora.subscription.repository;
 
 import com.syncora.subscription.entity.UserSubscription;
 import com.syncora.user.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,4 +38,14 @@ public interface UserSubscriptionRepository extends JpaRepository<UserSubscripti
     @Query("SELECT us FROM UserSubscription us WHERE us.trialEndDate < :now " +
            "AND us.status = 'TRIAL'")
     List<UserSubscription> findExpiredTrials(LocalDateTime now);
+    
+    @Query("SELECT us.plan.storageQuotaBytes FROM UserSubscription us WHERE us.user.email = :email " +
+           "AND us.status IN ('ACTIVE', 'TRIAL') ORDER BY us.createdAt DESC")
+    List<Long> findStorageQuotaBytesByUserEmail(@Param("email") String email, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE UserSubscription us SET us.storageUsedMb = :usedMb " +
+           "WHERE us.user.id IN (SELECT u.id FROM User u WHERE u.email = :email) " +
+           "AND us.status IN ('ACTIVE', 'TRIAL')")
+    int updateStorageUsedMb(@Param("email") String email, @Param("usedMb") long usedMb);
 }
@@ -129,7 +129,7 @@ public class TaskController {
     }
 
     @GetMapping("/tags")
-    @Operation(summary = "Get tasks by tags", description = "Retrieves tasks filtered by tags")
+    @Operation(summary = "Get tasks by tags", description = "Retrieves tasks carrying any of the given tags")
     public ResponseEntity<ApiResponse<List<TaskDTO>>> getTasksByTags(
             HttpServletRequest req,
             @RequestParam List<String> tags) {
@@ -138,6 +138,25 @@ public class TaskController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Tasks retrieved by tags", tasks));
     }
 
+    @GetMapping("/tags/query")
+    @Operation(summary = "Filter tasks by tag expression",
+               description = "Filters owned and assigned tasks with a tag expression such as: backend AND (bug OR urgent) AND NOT blocked")
+    public ResponseEntity<ApiResponse<List<TaskDTO>>> filterTasksByTags(
+            HttpServletRequest req,
+            @RequestParam("q") String expression) {
+        User user = getCurrentUser(req);
+        List<TaskDTO> tasks = taskService.filterTasksByTags(expression, user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Tasks filtered by tags", tasks));
+    }
+
+    @GetMapping("/tags/counts")
+    @Operation(summary = "Get tag counts", description = "Returns the number of owned and assigned tasks per tag, most used first")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> getTagCounts(HttpServletRequest req) {
+        User user = getCurrentUser(req);
+        Map<String, Integer> counts = taskService.getTagCounts(user);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Tag counts retrieved", counts));
+    }
+
     @PatchMapping("/{taskId}/status")
     @Operation(summary = "Update task status", description = "Updates the status of a task")
     public ResponseEntity<ApiResponse<TaskDTO>> updateTaskStatus(
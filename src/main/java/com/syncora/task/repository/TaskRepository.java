@@ -1,5 +1,6 @@
 package com.syncora.task.repository;
 
+import com.syncora.common.tags.TagRow;
 import com.syncora.task.Task;
 import com.syncora.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,8 +38,12 @@ public interface TaskRepository extends JpaRepository<Task, String> {
            "LOWER(t.description) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<Task> searchTasks(@Param("user") User user, @Param("query") String query);
     
-    @Query("SELECT t FROM Task t JOIN t.tags tag WHERE (t.owner = :user OR t.assignee = :user) AND tag IN :tags")
-    List<Task> findByUserAndTagsIn(@Param("user") User user, @Param("tags") List<String> tags);
+    // One row per (task, tag) over owned and assigned tasks; untagged tasks come back once with a null tag
+    @Query("SELECT t.id AS itemId, tag AS tag FROM Task t LEFT JOIN t.tags tag WHERE t.owner = :user OR t.assignee = :user")
+    List<TagRow> findTagRowsByUser(@Param("user") User user);
+    
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND (t.owner = :user OR t.assignee = :user) ORDER BY t.createdAt DESC")
+    List<Task> findByIdInAndUser(@Param("ids") Collection<String> ids, @Param("user") User user);
     
     long countByOwnerAndStatus(User owner, Task.Status status);
     
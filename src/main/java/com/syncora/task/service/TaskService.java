@@ -7,6 +7,7 @@ import com.syncora.task.dto.UpdateTaskRequest;
 import com.syncora.user.entity.User;
 
 import java.util.List;
+import java.util.Map;
 
 public interface TaskService {
     
@@ -30,6 +31,10 @@ public interface TaskService {
     
     List<TaskDTO> getTasksByTags(List<String> tags, User owner);
     
+    List<TaskDTO> filterTasksByTags(String expression, User owner);
+    
+    Map<String, Integer> getTagCounts(User owner);
+    
     TaskDTO updateTaskStatus(String taskId, Task.Status status, User owner);
     
     long getTasksCount(User owner);
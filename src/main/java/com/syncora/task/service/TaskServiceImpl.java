@@ -1,6 +1,9 @@
 package com.syncora.task.service;
 
 import com.syncora.common.exception.ResourceNotFoundException;
+import com.syncora.common.tags.TagExpression;
+import com.syncora.common.tags.TagIndex;
+import com.syncora.common.tags.TagIndexService;
 import com.syncora.task.Task;
 import com.syncora.task.dto.CreateTaskRequest;
 import com.syncora.task.dto.TaskDTO;
@@ -13,7 +16,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -25,6 +30,7 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final TagIndexService tagIndexService;
 
     @Override
     public TaskDTO createTask(CreateTaskRequest request, User owner) {
@@ -47,6 +53,7 @@ public class TaskServiceImpl implements TaskService {
         }
 
         Task savedTask = taskRepository.save(task);
+        tagIndexService.itemSaved(TagIndexService.Kind.TASK, indexedUserIds(savedTask), savedTask.getId(), savedTask.getTags());
         log.info("Task created successfully with ID: {}", savedTask.getId());
 
         return mapToDTO(savedTask);
@@ -59,6 +66,8 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findByIdAndOwner(taskId, owner)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
 
+        List<String> previousUserIds = indexedUserIds(task);
+
         if (request.getTitle() != null) {
             task.setTitle(request.getTitle());
         }
@@ -84,6 +93,13 @@ public class TaskServiceImpl implements TaskService {
         }
 
         Task updatedTask = taskRepository.save(task);
+        if (request.getTags() != null || request.getAssigneeId() != null) {
+            List<String> userIds = indexedUserIds(updatedTask);
+            List<String> droppedUserIds = new ArrayList<>(previousUserIds);
+            droppedUserIds.removeAll(userIds);
+            tagIndexService.itemRemoved(TagIndexService.Kind.TASK, droppedUserIds, taskId);
+            tagIndexService.itemSaved(TagIndexService.Kind.TASK, userIds, taskId, updatedTask.getTags());
+        }
         log.info("Task updated successfully: {}", taskId);
 
         return mapToDTO(updatedTask);
@@ -97,6 +113,7 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
 
         taskRepository.delete(task);
+        tagIndexService.itemRemoved(TagIndexService.Kind.TASK, indexedUserIds(task), taskId);
         log.info("Task deleted successfully: {}", taskId);
     }
 
@@ -161,8 +178,21 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskDTO> getTasksByTags(List<String> tags, User owner) {
         log.info("Fetching tasks with tags {} for user: {}", tags, owner.getEmail());
 
-        List<Task> tasks = taskRepository.findByUserAndTagsIn(owner, tags);
-        return tasks.stream().map(this::mapToDTO).collect(Collectors.toList());
+        return findByTagExpression(TagExpression.anyOf(tags), owner);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> filterTasksByTags(String expression, User owner) {
+        log.info("Filtering tasks by tag expression '{}' for user: {}", expression, owner.getEmail());
+
+        return findByTagExpression(TagExpression.parse(expression), owner);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getTagCounts(User owner) {
+        return tagIndex(owner).counts();
     }
 
     @Override
@@ -191,6 +221,30 @@ public class TaskServiceImpl implements TaskService {
         return taskRepository.countByOwnerAndStatus(owner, status);
     }
 
+    private List<TaskDTO> findByTagExpression(TagExpression expression, User user) {
+        List<String> ids = tagIndex(user).find(expression);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Task> tasks = taskRepository.findByIdInAndUser(ids, user);
+        return tasks.stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    private TagIndex tagIndex(User user) {
+        return tagIndexService.get(TagIndexService.Kind.TASK, user.getId(),
+                () -> taskRepository.findTagRowsByUser(user));
+    }
+
+    // A task shows up in the tag index of its owner and of its assignee
+    private List<String> indexedUserIds(Task task) {
+        List<String> userIds = new ArrayList<>(2);
+        userIds.add(task.getOwner().getId());
+        if (task.getAssignee() != null && !task.getAssignee().getId().equals(task.getOwner().getId())) {
+            userIds.add(task.getAssignee().getId());
+        }
+        return userIds;
+    }
+
     private TaskDTO mapToDTO(Task task) {
         TaskDTO.AssigneeInfo assigneeInfo = null;
         if (task.getAssignee() != null) {
@@ -56,6 +56,11 @@ public class User {
     @Builder.Default
     private Long storageUsedBytes = 0L;
 
+    // Bytes held by in-flight uploads; see StorageQuotaService
+    @Builder.Default
+    @Column(columnDefinition = "bigint default 0")
+    private Long storageReservedBytes = 0L;
+
     // Notification settings
     @Builder.Default
     private Boolean emailNotifications = true;
@@ -2,8 +2,13 @@ package com.syncora.user.repository;
 
 import com.syncora.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,63 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    Optional<User> findFirstByEmailNot(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT COALESCE(u.storageUsedBytes, 0) FROM User u WHERE u.email = :email")
+    Optional<Long> findStorageUsedBytesByEmail(@Param("email") String email);
+
+    // 🔹 Storage quota ledger: single-row conditional updates, no SUM over files
+
+    @Modifying
+    @Query("""
+            UPDATE User u
+            SET u.storageReservedBytes = COALESCE(u.storageReservedBytes, 0) + :bytes
+            WHERE u.email = :email
+              AND (:quota < 0
+                   OR COALESCE(u.storageUsedBytes, 0) + COALESCE(u.storageReservedBytes, 0) + :bytes <= :quota)
+            """)
+    int tryReserveStorage(@Param("email") String email, @Param("bytes") long bytes, @Param("quota") long quota);
+
+    @Modifying
+    @Query("""
+            UPDATE User u
+            SET u.storageReservedBytes = CASE WHEN COALESCE(u.storageReservedBytes, 0) > :bytes
+                                              THEN u.storageReservedBytes - :bytes ELSE 0 END,
+                u.storageUsedBytes = COALESCE(u.storageUsedBytes, 0) + :bytes
+            WHERE u.email = :email
+            """)
+    int commitReservedStorage(@Param("email") String email, @Param("bytes") long bytes);
+
+    // Charges used bytes directly, for an upload whose reservation expired before it committed
+    @Modifying
+    @Query("""
+            UPDATE User u
+            SET u.storageUsedBytes = COALESCE(u.storageUsedBytes, 0) + :bytes
+            WHERE u.email = :email
+              AND (:quota < 0
+                   OR COALESCE(u.storageUsedBytes, 0) + COALESCE(u.storageReservedBytes, 0) + :bytes <= :quota)
+            """)
+    int tryChargeStorage(@Param("email") String email, @Param("bytes") long bytes, @Param("quota") long quota);
+
+    @Modifying
+    @Query("""
+            UPDATE User u
+            SET u.storageReservedBytes = CASE WHEN COALESCE(u.storageReservedBytes, 0) > :bytes
+                                              THEN u.storageReservedBytes - :bytes ELSE 0 END
+            WHERE u.email = :email
+            """)
+    int releaseReservedStorage(@Param("email") String email, @Param("bytes") long bytes);
+
+    @Modifying
+    @Query("""
+            UPDATE User u
+            SET u.storageUsedBytes = CASE WHEN COALESCE(u.storageUsedBytes, 0) > :bytes
+                                          THEN u.storageUsedBytes - :bytes ELSE 0 END
+            WHERE u.email = :email
+            """)
+    int releaseUsedStorage(@Param("email") String email, @Param("bytes") long bytes);
 }
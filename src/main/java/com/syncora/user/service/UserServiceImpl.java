@@ -6,7 +6,9 @@ import com.syncora.user.dto.UserDto;
 import com.syncora.user.entity.User;
 import com.syncora.user.repository.UserRepository;
 import com.syncora.note.repository.NoteRepository;
+import com.syncora.note.repository.NoteRevisionRepository;
 import com.syncora.task.repository.TaskRepository;
+import com.syncora.common.tags.TagIndexService;
 import com.syncora.contact.repository.ContactRepository;
 import com.syncora.security.repository.RefreshTokenRepository;
 import com.syncora.communication.chat.repository.MessageRepository;
@@ -32,7 +34,9 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final NoteRepository noteRepository;
+    private final NoteRevisionRepository noteRevisionRepository;
     private final TaskRepository taskRepository;
+    private final TagIndexService tagIndexService;
     private final ContactRepository contactRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final MessageRepository messageRepository;
@@ -87,6 +91,7 @@ public class UserServiceImpl implements UserService {
             entityManager.flush();
             log.info("Deleted refresh tokens for user: {}", email);
             
+            noteRevisionRepository.deleteAllByOwnerId(user.getId());
             noteRepository.deleteAllByOwner(user);
             entityManager.flush();
             log.info("Deleted notes for user: {}", email);
@@ -94,6 +99,7 @@ public class UserServiceImpl implements UserService {
             taskRepository.deleteAllByOwner(user);
             entityManager.flush();
             log.info("Deleted tasks for user: {}", email);
+            tagIndexService.evictUser(user.getId());
             
             contactRepository.deleteAllByOwner(user);
             entityManager.flush();
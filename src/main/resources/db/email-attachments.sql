@@ -0,0 +1,5 @@
+-- Attachments now reference the content-addressed blob store. Uploads exist before their message,
+-- so message_id must accept NULL on databases created earlier, and only attachments migrated from
+-- the legacy emails table still carry a url. Idempotent.
+ALTER TABLE email_attachments ALTER COLUMN url DROP NOT NULL;
+ALTER TABLE email_attachments ALTER COLUMN message_id DROP NOT NULL;
@@ -0,0 +1,76 @@
+-- Moves mail stored in the legacy per-copy `emails` table into the shared-content model:
+-- every legacy row becomes one email_message plus one mailbox_entry, both keeping the legacy id,
+-- with its folder, flags, labels and attachments. Runs after Hibernate's schema update and is
+-- idempotent: migrated rows are stamped with migrated_at and skipped from then on, so mail the
+-- user deletes later is not brought back on the next start.
+
+-- Hibernate cannot add the new NOT NULL attachment columns to a non-empty legacy table, so they
+-- are added here as nullable. On other installs Hibernate already created them and these are no-ops.
+ALTER TABLE email_attachments ADD COLUMN IF NOT EXISTS url varchar(255);
+ALTER TABLE email_attachments ADD COLUMN IF NOT EXISTS message_id varchar(255);
+ALTER TABLE email_attachments ADD COLUMN IF NOT EXISTS content_hash varchar(64);
+ALTER TABLE email_attachments ADD COLUMN IF NOT EXISTS uploaded_by varchar(255);
+ALTER TABLE email_attachments ADD COLUMN IF NOT EXISTS created_at timestamp(6);
+
+-- Installs created after the switch never had the legacy tables and skip the whole block. plpgsql
+-- plans each statement when it first runs, so the legacy table names are only resolved here.
+-- The body is a plain string literal rather than $$-quoted because Spring's script runner splits
+-- scripts on every semicolon outside single quotes; quotes inside it are doubled.
+DO '
+BEGIN
+    IF to_regclass(''emails'') IS NULL THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE emails ADD COLUMN IF NOT EXISTS migrated_at timestamp(6);
+
+    -- Legacy attachment rows point at emails through email_id and hold only an external url
+    ALTER TABLE email_attachments ALTER COLUMN email_id DROP NOT NULL;
+
+    -- Subjects are normalized the way EmailMessage.normalizeSubject does it, so replies can join these threads
+    INSERT INTO email_message (id, from_email, from_name, to_recipients, cc_recipients, bcc_recipients,
+                               subject, normalized_subject, thread_id, body, html_body, sent_at, created_at)
+    SELECT e.id, e.from_email, e.from_name,
+           COALESCE((SELECT jsonb_agg(r.recipient) FROM email_recipients r WHERE r.email_id = e.id AND r.recipient IS NOT NULL), ''[]''::jsonb),
+           COALESCE((SELECT jsonb_agg(c.cc_recipient) FROM email_cc c WHERE c.email_id = e.id AND c.cc_recipient IS NOT NULL), ''[]''::jsonb),
+           COALESCE((SELECT jsonb_agg(b.bcc_recipient) FROM email_bcc b WHERE b.email_id = e.id AND b.bcc_recipient IS NOT NULL), ''[]''::jsonb),
+           e.subject,
+           lower(btrim(regexp_replace(btrim(regexp_replace(e.subject, ''\s+'', '' '', ''g'')),
+                                      ''^((re|fw|fwd|aw|sv|wg)(\[\d+\])?\s*:\s*)+'', '''', ''i''))),
+           e.id, e.body, e.html_body,
+           COALESCE(e.sent_at, e.created_at, now()), COALESCE(e.created_at, now())
+    FROM emails e
+    WHERE e.migrated_at IS NULL
+    ON CONFLICT (id) DO NOTHING;
+
+    INSERT INTO mailbox_entry (id, message_id, owner_email, folder, is_read, is_starred, thread_id,
+                               sent_at, created_at, updated_at)
+    SELECT e.id, e.id, e.owner_email, e.folder, e.is_read, e.is_starred, e.id,
+           COALESCE(e.sent_at, e.created_at, now()), COALESCE(e.created_at, now()), e.updated_at
+    FROM emails e
+    WHERE e.migrated_at IS NULL
+    ON CONFLICT (id) DO NOTHING;
+
+    -- Labels are trimmed like EmailService.normalizeLabel; blank ones are dropped
+    INSERT INTO mailbox_label (id, entry_id, owner_email, label, sent_at)
+    SELECT gen_random_uuid()::text, l.entry_id, l.owner_email, l.label, l.sent_at
+    FROM (SELECT DISTINCT e.id AS entry_id, e.owner_email, left(btrim(el.label), 100) AS label,
+                 COALESCE(e.sent_at, e.created_at, now()) AS sent_at
+          FROM emails e
+          JOIN email_labels el ON el.email_id = e.id
+          WHERE e.migrated_at IS NULL AND btrim(coalesce(el.label, '''')) <> '''') l
+    ON CONFLICT (entry_id, label) DO NOTHING;
+
+    -- Legacy attachments keep their url (served as-is, there is no blob for them) and join the new message
+    UPDATE email_attachments a
+    SET message_id  = a.email_id,
+        uploaded_by = COALESCE(a.uploaded_by, e.from_email),
+        created_at  = COALESCE(a.created_at, e.created_at, now())
+    FROM emails e
+    WHERE a.email_id = e.id
+      AND a.message_id IS NULL
+      AND e.migrated_at IS NULL;
+
+    UPDATE emails SET migrated_at = now() WHERE migrated_at IS NULL;
+END
+';
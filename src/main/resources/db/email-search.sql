@@ -0,0 +1,14 @@
+-- Full-text search over shared email content.
+-- Applied by DatabaseSchemaInitializer after Hibernate's schema update on every start,
+-- so every statement must be idempotent.
+
+-- Subject ranks highest (A), sender name/address next (C), body last (D).
+-- Weights let "subject:" terms be matched as `term:A` against the same index.
+ALTER TABLE email_message ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(subject, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(from_name, '') || ' ' || coalesce(from_email, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(body, '')), 'D')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_email_message_search ON email_message USING GIN (search_vector);
@@ -0,0 +1,7 @@
+-- Backfill thread ids for mail stored before threading existed: each old message starts its own thread.
+-- Idempotent, only rows without a thread are touched.
+UPDATE email_message SET thread_id = id WHERE thread_id IS NULL;
+
+UPDATE mailbox_entry e SET thread_id = m.thread_id
+FROM email_message m
+WHERE e.message_id = m.id AND e.thread_id IS NULL;
@@ -0,0 +1,11 @@
+-- Full-text search over notes. Idempotent; runs after Hibernate's schema update.
+-- The column is generated, so creating, editing or deleting a note keeps it current.
+
+-- Title ranks above content.
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_note_search ON notes USING GIN (search_vector);
@@ -0,0 +1,23 @@
+-- One-time backfill of the storage ledger from the chat files stored before quota tracking existed.
+-- The marker row makes it run once: later startups find the marker and leave the live counters alone.
+CREATE TABLE IF NOT EXISTS data_backfills (
+    name       varchar(100) PRIMARY KEY,
+    applied_at timestamp    NOT NULL DEFAULT now()
+);
+
+WITH marker AS (
+    INSERT INTO data_backfills (name) VALUES ('storage-used-bytes-from-chat-files')
+    ON CONFLICT DO NOTHING
+    RETURNING name
+)
+UPDATE users u
+SET storage_used_bytes = COALESCE((SELECT SUM(f.file_size) FROM chat_files f WHERE f.uploaded_by = u.email), 0)
+WHERE EXISTS (SELECT 1 FROM marker);
+
+-- Keep the subscription's MB figure derived from the byte counter. Idempotent.
+UPDATE user_subscriptions s
+SET storage_used_mb = COALESCE(u.storage_used_bytes, 0) / 1048576
+FROM users u
+WHERE s.user_id = u.id
+  AND s.status IN ('ACTIVE', 'TRIAL')
+  AND s.storage_used_mb <> COALESCE(u.storage_used_bytes, 0) / 1048576;
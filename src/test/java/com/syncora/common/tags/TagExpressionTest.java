@@ -0,0 +1,104 @@
+package com.syncora.common.tags;
+
+import com.syncora.common.exception.ApiException;
+import com.syncora.common.tags.TagExpression.And;
+import com.syncora.common.tags.TagExpression.Not;
+import com.syncora.common.tags.TagExpression.Or;
+import com.syncora.common.tags.TagExpression.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagExpressionTest {
+
+    @Test
+    void notBindsTighterThanAndWhichBindsTighterThanOr() {
+        assertEquals(or(tag("a"), and(tag("b"), not(tag("c")))), TagExpression.parse("a OR b AND NOT c"));
+        assertEquals(or(and(not(tag("a")), tag("b")), tag("c")), TagExpression.parse("!a & b | c"));
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        assertEquals(and(or(tag("a"), tag("b")), tag("c")), TagExpression.parse("(a OR b) AND c"));
+        assertEquals(not(or(tag("a"), tag("b"))), TagExpression.parse("NOT (a | b)"));
+    }
+
+    @Test
+    void adjacentTermsAreAnded() {
+        assertEquals(and(tag("work"), tag("urgent"), not(tag("done"))), TagExpression.parse("work urgent !done"));
+        assertEquals(or(and(tag("a"), tag("b")), tag("c")), TagExpression.parse("a b OR c"));
+        assertEquals(and(tag("a"), tag("b")), TagExpression.parse("a(b)"));
+    }
+
+    @Test
+    void keywordsAreCaseInsensitive() {
+        assertEquals(TagExpression.parse("a AND NOT b OR c"), TagExpression.parse("a and not b or c"));
+    }
+
+    @Test
+    void quotesKeepSpacesKeywordsAndOperatorsInsideATag() {
+        assertEquals(and(tag("follow up"), tag("OR"), tag("a|b")),
+                TagExpression.parse("\"follow up\" AND \"OR\" \"a|b\""));
+        assertEquals(not(tag("not")), TagExpression.parse("NOT \"not\""));
+    }
+
+    @Test
+    void malformedExpressionsAreRejected() {
+        for (String input : List.of("a AND", "a OR", "OR a", "a AND AND b", "!", "(a", "a)", "()", "\"open")) {
+            ApiException error = assertThrows(ApiException.class, () -> TagExpression.parse(input));
+            assertTrue(error.getMessage().startsWith("Invalid tag expression: "), input + " -> " + error.getMessage());
+        }
+    }
+
+    @Test
+    void emptyOrOverlongExpressionsAreRejected() {
+        assertThrows(ApiException.class, () -> TagExpression.parse(null));
+        assertThrows(ApiException.class, () -> TagExpression.parse("   "));
+        assertThrows(ApiException.class, () -> TagExpression.parse("a ".repeat(TagExpression.MAX_LENGTH)));
+    }
+
+    @Test
+    void evaluatesAgainstTheIndex() {
+        TagIndex index = new TagIndex(0);
+        index.put("1", List.of("work", "urgent"));
+        index.put("2", List.of("work", "done"));
+        index.put("3", List.of("home", "urgent"));
+        index.put("4", List.of());
+
+        assertEquals(Set.of("1"), find(index, "work urgent"));
+        assertEquals(Set.of("1", "3"), find(index, "urgent AND NOT done"));
+        assertEquals(Set.of("2", "3"), find(index, "done OR home"));
+        assertEquals(Set.of("3", "4"), find(index, "NOT work"));
+        assertEquals(Set.of(), find(index, "unknown"));
+
+        index.remove("3");
+        index.put("5", List.of("home"));
+        assertEquals(Set.of("5"), find(index, "home"));
+        assertEquals(Set.of("4", "5"), find(index, "!work"));
+    }
+
+    private static Set<String> find(TagIndex index, String expression) {
+        return Set.copyOf(index.find(TagExpression.parse(expression)));
+    }
+
+    private static TagExpression tag(String name) {
+        return new Tag(name);
+    }
+
+    private static TagExpression and(TagExpression... terms) {
+        return new And(List.of(terms));
+    }
+
+    private static TagExpression or(TagExpression... terms) {
+        return new Or(List.of(terms));
+    }
+
+    private static TagExpression not(TagExpression term) {
+        return new Not(term);
+    }
+}
@@ -0,0 +1,100 @@
+package com.syncora.email.repository;
+
+import com.syncora.email.entity.EmailAttachment;
+import com.syncora.email.entity.EmailMessage;
+import com.syncora.email.entity.MailboxEntry;
+import com.syncora.email.entity.MailboxEntry.EmailFolder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mapping a folder page reads each entry's message, labels and attachments. With the message
+ * entity graph and {@code @BatchSize} on labels and attachments that must stay a fixed number
+ * of statements however many entries the page holds. Runs against the configured PostgreSQL
+ * (the schema uses jsonb and generated columns) and rolls back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application1.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MailboxEntryQueryCountTest {
+
+    private static final String OWNER = "query-count-owner@syncora.test";
+
+    @Autowired
+    private MailboxEntryRepository mailboxEntryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 40, 100})
+    void folderPageLoadsLabelsAndAttachmentsInConstantStatements(int pageSize) {
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            EmailMessage message = EmailMessage.builder()
+                    .from("sender" + i + "@syncora.test")
+                    .fromName("Sender " + i)
+                    .to(List.of(OWNER))
+                    .subject("Subject " + i)
+                    .body("Body " + i)
+                    .sentAt(sentAt.minusMinutes(i))
+                    .build();
+            message.getAttachments().add(EmailAttachment.builder()
+                    .message(message)
+                    .filename("file" + i + ".txt")
+                    .size(10L)
+                    .mimeType("text/plain")
+                    .contentHash(String.format("%064d", i))
+                    .uploadedBy(message.getFrom())
+                    .build());
+            entityManager.persist(message);
+
+            MailboxEntry entry = MailboxEntry.builder()
+                    .message(message)
+                    .ownerEmail(OWNER)
+                    .folder(EmailFolder.INBOX)
+                    .sentAt(message.getSentAt())
+                    .build();
+            entry.addLabel("work");
+            entry.addLabel("label-" + i % 3);
+            entityManager.persist(entry);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<MailboxEntry> page = mailboxEntryRepository.findByOwnerEmailAndFolderOrderBySentAtDesc(OWNER, EmailFolder.INBOX);
+        int labels = 0;
+        int attachments = 0;
+        for (MailboxEntry entry : page) {
+            labels += entry.getLabelNames().size();
+            attachments += entry.getMessage().getAttachments().size();
+            assertEquals(List.of(OWNER), entry.getMessage().getTo());
+        }
+
+        assertEquals(pageSize, page.size());
+        assertEquals(pageSize * 2, labels);
+        assertEquals(pageSize, attachments);
+        // Entries joined with their messages, one batch of labels, one batch of attachments
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,112 @@
+package com.syncora.email.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A small wheel (4 slots x 3 levels = 64 ticks) so every test crosses level boundaries and
+ * wraps the lower levels several times.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int SLOTS = 4;
+    private static final int LEVELS = 3;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void everyDelayFiresOnItsOwnTick() {
+        // Starting mid-block puts items right on and around each level boundary
+        for (int offset = 0; offset < SLOTS * SLOTS; offset++) {
+            HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, LEVELS, START);
+            wheel.advanceTo(at(offset));
+            for (long tick = offset + 1; tick < offset + 64; tick++) {
+                assertTrue(wheel.add(tick, at(tick)), "tick " + tick + " is within the horizon");
+            }
+            for (long tick = offset + 1; tick < offset + 64; tick++) {
+                assertEquals(List.of(tick), wheel.advanceTo(at(tick)), "offset " + offset + ", tick " + tick);
+            }
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    void keepsFiringCorrectlyAfterTheWheelWrapsAround() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, LEVELS, START);
+        Random random = new Random(42);
+        List<List<Long>> expected = new ArrayList<>();
+        long now = 0;
+        // Ten full turns of the top level, adding new items as time moves on
+        while (now < 640) {
+            for (int i = 0; i < 3; i++) {
+                long due = now + 1 + random.nextInt(63);
+                if (wheel.add(due, at(due))) {
+                    while (expected.size() <= due) {
+                        expected.add(new ArrayList<>());
+                    }
+                    expected.get((int) due).add(due);
+                }
+            }
+            now++;
+            List<Long> fired = new ArrayList<>(wheel.advanceTo(at(now)));
+            fired.sort(null);
+            List<Long> want = now < expected.size() ? expected.get((int) now) : List.of();
+            assertEquals(want, fired, "items due at tick " + now);
+        }
+    }
+
+    @Test
+    void overdueAddFiresOnTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, LEVELS, START);
+        wheel.advanceTo(at(10));
+
+        assertTrue(wheel.add("late", at(2)));
+        assertTrue(wheel.add("now", at(10)));
+
+        assertEquals(List.of(), wheel.advanceTo(at(10)));
+        assertEquals(List.of("late", "now"), wheel.advanceTo(at(11)));
+    }
+
+    @Test
+    void neverFiresBeforeTheDueTime() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, LEVELS, START);
+        wheel.add("mid-tick", at(1) + TICK / 2);
+
+        assertEquals(List.of(), wheel.advanceTo(at(1)));
+        assertEquals(List.of("mid-tick"), wheel.advanceTo(at(2)));
+    }
+
+    @Test
+    void advancingSeveralTicksAtOnceReturnsEverythingDue() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, LEVELS, START);
+        wheel.add(5L, at(5));
+        wheel.add(17L, at(17));
+        wheel.add(40L, at(40));
+
+        assertEquals(List.of(5L, 17L), wheel.advanceTo(at(20)));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(40L), wheel.advanceTo(at(63)));
+    }
+
+    @Test
+    void rejectsTimesBeyondTheHorizon() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, LEVELS, START);
+        wheel.advanceTo(at(7));
+
+        assertEquals(at(7 + 63), wheel.horizonMillis());
+        assertTrue(wheel.add("last", wheel.horizonMillis()));
+        assertFalse(wheel.add("too far", wheel.horizonMillis() + 1));
+        assertEquals(1, wheel.size());
+    }
+
+    private static long at(long tick) {
+        return START + tick * TICK;
+    }
+}
@@ -0,0 +1,40 @@
+package com.syncora.email.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailSearchQueryTest {
+
+    @Test
+    void freeTermsAreAnded() {
+        assertEquals("invoice & march", EmailSearchQuery.parse("Invoice march").tsQuery());
+    }
+
+    @Test
+    void quotedPhrasesRequireAdjacentWords() {
+        assertEquals("(q3 <-> budget) & invoice", EmailSearchQuery.parse("\"Q3 budget\" invoice").tsQuery());
+        assertEquals("(q3:A <-> budget:A)", EmailSearchQuery.parse("subject:\"q3 budget\"").tsQuery());
+        assertEquals("budget", EmailSearchQuery.parse("\"budget\"").tsQuery());
+    }
+
+    @Test
+    void unquotedSubjectTermsAreWeighted() {
+        assertEquals("budget:A", EmailSearchQuery.parse("subject:budget").tsQuery());
+    }
+
+    @Test
+    void operatorsFilterInsteadOfSearchingText() {
+        EmailSearchQuery query = EmailSearchQuery.parse("from:ali_ce has:attachment");
+
+        assertEquals("", query.tsQuery());
+        assertEquals("%ali\\_ce%", query.fromPattern());
+        assertTrue(query.hasAttachment());
+    }
+
+    @Test
+    void punctuationNeverReachesTheTsquery() {
+        assertEquals("(a <-> b) & c", EmailSearchQuery.parse("\"a & b\" c|!").tsQuery());
+    }
+}
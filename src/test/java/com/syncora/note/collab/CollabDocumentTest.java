@@ -0,0 +1,106 @@
+package com.syncora.note.collab;
+
+import com.syncora.note.collab.CollabMessages.AppliedOperation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CollabDocumentTest {
+
+    @Test
+    void concurrentOperationsOnTheSameBaseAreTransformedAndConverge() {
+        CollabDocument document = document("hello world", 10);
+
+        document.apply("a", 0, op("Oh, ", 11));
+        document.apply("b", 0, op(5, -6));
+        AppliedOperation third = document.apply("c", 0, op(11, "!"));
+
+        assertEquals(3, third.revision());
+        assertEquals(List.of(9, "!"), third.op().toJson());
+        assertEquals("Oh, hello!", document.state().content());
+    }
+
+    @Test
+    void operationsAreOnlyTransformedPastWhatTheClientHasNotSeen() {
+        CollabDocument document = document("abc", 10);
+        document.apply("a", 0, op("x", 3));
+
+        // Client b already saw revision 1 ("xabc"), so its op needs no transformation
+        AppliedOperation applied = document.apply("b", 1, op(4, "y"));
+
+        assertEquals(List.of(4, "y"), applied.op().toJson());
+        assertEquals("xabcy", document.state().content());
+    }
+
+    @Test
+    void baseOlderThanTheRetainedHistoryIsStale() {
+        CollabDocument document = document("", 2);
+        document.apply("a", 0, op("1"));
+        document.apply("a", 1, op(1, "2"));
+        document.apply("a", 2, op(2, "3"));
+
+        assertThrows(CollabDocument.StaleRevisionException.class, () -> document.apply("b", 0, op("x")));
+
+        document.apply("b", 1, op(1, "x"));
+        assertEquals("1x23", document.state().content());
+    }
+
+    @Test
+    void baseAheadOfTheDocumentIsRejected() {
+        CollabDocument document = document("abc", 10);
+
+        assertThrows(IllegalArgumentException.class, () -> document.apply("a", 1, op(3, "x")));
+    }
+
+    @Test
+    void broadcastsEveryAppliedOperationOnce() {
+        CollabDocument document = document("", 10);
+        document.apply("a", 0, op("x"));
+        document.apply("b", 0, op("y"));
+
+        assertEquals(List.of(1L, 2L), document.drainUnsent().stream().map(AppliedOperation::revision).toList());
+        assertEquals(List.of(), document.drainUnsent());
+    }
+
+    @Test
+    void checkpointCarriesTheContentVersionItIsBasedOn() {
+        CollabDocument document = document("abc", 10);
+        assertNull(document.pendingCheckpoint());
+
+        document.apply("a", 0, op(3, "d"));
+        CollabDocument.Checkpoint pending = document.pendingCheckpoint();
+        assertEquals(new CollabDocument.Checkpoint("abcd", 1, 4), pending);
+
+        document.markCheckpointed(pending.revision(), 5);
+        assertNull(document.pendingCheckpoint());
+        assertEquals(5, document.contentVersion());
+    }
+
+    @Test
+    void resetDropsUnsavedEditsAndRejectsOperationsOnTheOldContent() {
+        CollabDocument document = document("abc", 10);
+        document.apply("a", 0, op(3, "d"));
+
+        document.reset("Title", "replaced", 7);
+
+        assertEquals(new CollabMessages.DocumentState("note-1", 2, "Title", "replaced"), document.state());
+        assertNull(document.pendingCheckpoint());
+        assertEquals(List.of(), document.drainUnsent());
+        assertThrows(CollabDocument.StaleRevisionException.class, () -> document.apply("b", 1, op(4, "e")));
+
+        document.apply("b", 2, op(8, "!"));
+        assertEquals("replaced!", document.state().content());
+    }
+
+    private static CollabDocument document(String content, int maxHistory) {
+        return new CollabDocument("note-1", "owner@example.com", "Title", content, 4, maxHistory);
+    }
+
+    private static TextOp op(Object... components) {
+        return TextOp.fromJson(List.of(components));
+    }
+}
@@ -0,0 +1,123 @@
+package com.syncora.note.collab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TextOpTest {
+
+    @Test
+    void transformedOpsConvergeOnRandomConcurrentEdits() {
+        Random random = new Random(7);
+        for (int round = 0; round < 2000; round++) {
+            String text = randomText(random, random.nextInt(12));
+            TextOp a = randomOp(text, random);
+            TextOp b = randomOp(text, random);
+
+            TextOp[] transformed = TextOp.transform(a, b);
+
+            String viaA = transformed[1].apply(a.apply(text));
+            String viaB = transformed[0].apply(b.apply(text));
+            assertEquals(viaA, viaB, "text '" + text + "', a " + a.toJson() + ", b " + b.toJson());
+        }
+    }
+
+    @Test
+    void insertsAtTheSamePositionPutTheFirstOperandFirst() {
+        TextOp a = op(1, "X", 2);
+        TextOp b = op(1, "Y", 2);
+
+        TextOp[] ab = TextOp.transform(a, b);
+        assertEquals("aXYbc", ab[1].apply(a.apply("abc")));
+        assertEquals("aXYbc", ab[0].apply(b.apply("abc")));
+
+        TextOp[] ba = TextOp.transform(b, a);
+        assertEquals("aYXbc", ba[1].apply(b.apply("abc")));
+    }
+
+    @Test
+    void overlappingDeletesRemoveEachCharacterOnce() {
+        TextOp a = op(1, -3, 2);
+        TextOp b = op(2, -3, 1);
+
+        TextOp[] transformed = TextOp.transform(a, b);
+
+        assertEquals(List.of(1, -1, 1), transformed[0].toJson());
+        assertEquals(List.of(1, -1, 1), transformed[1].toJson());
+        assertEquals("af", transformed[1].apply(a.apply("abcdef")));
+        assertEquals("af", transformed[0].apply(b.apply("abcdef")));
+    }
+
+    @Test
+    void identicalDeletesCancelOut() {
+        TextOp a = op(2, -2);
+
+        TextOp[] transformed = TextOp.transform(a, a);
+
+        assertEquals(List.of(2), transformed[0].toJson());
+        assertEquals("ab", transformed[0].apply(a.apply("abcd")));
+    }
+
+    @Test
+    void deleteSpanningAConcurrentInsertKeepsTheInsert() {
+        TextOp delete = op(-4);
+        TextOp insert = op(2, "new", 2);
+
+        TextOp[] transformed = TextOp.transform(delete, insert);
+
+        assertEquals("new", transformed[1].apply(delete.apply("abcd")));
+        assertEquals("new", transformed[0].apply(insert.apply("abcd")));
+    }
+
+    @Test
+    void insertsAreKeptAheadOfAdjacentDeletes() {
+        assertEquals(List.of(1, "xy", -2), op(1, -2, "x", "y").toJson());
+        assertEquals(3, op(1, -2, "xy").baseLength());
+        assertEquals(3, op(1, -2, "xy").targetLength());
+    }
+
+    @Test
+    void rejectsMismatchedLengthsAndBadComponents() {
+        assertThrows(IllegalArgumentException.class, () -> op(3).apply("ab"));
+        assertThrows(IllegalArgumentException.class, () -> TextOp.transform(op(2), op(3)));
+        assertThrows(IllegalArgumentException.class, () -> op(0));
+        assertThrows(IllegalArgumentException.class, () -> op(1, true));
+    }
+
+    private static TextOp op(Object... components) {
+        return TextOp.fromJson(List.of(components));
+    }
+
+    // Covers the whole text with a random mix of retains, deletes and inserts
+    private static TextOp randomOp(String text, Random random) {
+        List<Object> json = new ArrayList<>();
+        int index = 0;
+        while (index < text.length()) {
+            int kind = random.nextInt(3);
+            if (kind == 2) {
+                json.add(randomText(random, 1 + random.nextInt(3)));
+                continue;
+            }
+            int n = 1 + random.nextInt(Math.min(3, text.length() - index));
+            json.add(kind == 0 ? n : -n);
+            index += n;
+        }
+        if (random.nextBoolean()) {
+            json.add(randomText(random, 1 + random.nextInt(3)));
+        }
+        return TextOp.fromJson(json);
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.syncora.note.repository;
+
+import com.syncora.note.Note;
+import com.syncora.user.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The note list endpoints map owner name/email and tags for every note; the list finders must
+ * fetch all of it in a single statement. Runs against the configured PostgreSQL and rolls back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application1.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class NoteRepositoryQueryCountTest {
+
+    private static final int NOTES = 60;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private List<String> noteIds;
+
+    @BeforeEach
+    void createNotes() {
+        owner = entityManager.persist(User.builder()
+                .email("notes-query-count@syncora.test")
+                .firstName("Query")
+                .lastName("Count")
+                .build());
+        noteIds = new ArrayList<>();
+        for (int i = 0; i < NOTES; i++) {
+            Note note = entityManager.persist(Note.builder()
+                    .title("Note " + i)
+                    .content("Content " + i)
+                    .tags(new ArrayList<>(List.of("tag-" + i % 4, "shared")))
+                    .starred(i % 2 == 0)
+                    .archived(i % 3 == 0)
+                    .owner(owner)
+                    .build());
+            noteIds.add(note.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void allNotesLoadInOneStatement() {
+        assertSingleStatement(() -> noteRepository.findByOwnerOrderByCreatedAtDesc(owner), NOTES);
+    }
+
+    @Test
+    void activeAndArchivedNotesLoadInOneStatement() {
+        assertSingleStatement(() -> noteRepository.findByOwnerAndArchivedOrderByCreatedAtDesc(owner, false), 40);
+        assertSingleStatement(() -> noteRepository.findByOwnerAndArchivedOrderByCreatedAtDesc(owner, true), 20);
+    }
+
+    @Test
+    void starredNotesLoadInOneStatement() {
+        assertSingleStatement(() -> noteRepository.findByOwnerAndStarredAndArchivedOrderByCreatedAtDesc(owner, true, false), 20);
+    }
+
+    @Test
+    void tagFilteredNotesLoadInOneStatement() {
+        assertSingleStatement(() -> noteRepository.findByIdInAndOwnerOrderByCreatedAtDesc(noteIds, owner), NOTES);
+    }
+
+    private void assertSingleStatement(Supplier<List<Note>> finder, int expectedNotes) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Note> notes = finder.get();
+        int tags = 0;
+        for (Note note : notes) {
+            // Everything NoteServiceImpl.mapToDTO touches
+            assertEquals(owner.getEmail(), note.getOwner().getEmail());
+            assertEquals("Query Count", note.getOwner().getFirstName() + " " + note.getOwner().getLastName());
+            tags += note.getTags().size();
+        }
+
+        assertEquals(expectedNotes, notes.size());
+        assertEquals(expectedNotes * 2, tags);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}